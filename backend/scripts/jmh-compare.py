@@ -0,0 +1,71 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files and flag regressions.
+
+Usage:
+    python3 scripts/jmh-compare.py /tmp/jmh-baseline.json target/jmh-result.json [--threshold 10]
+
+Exits with status 1 when any benchmark is slower than the baseline by more than the threshold (percent).
+"""
+import argparse
+import json
+import sys
+
+# Modes where a larger score is better; every other JMH mode reports time per operation
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path) as f:
+        results = json.load(f)
+    by_key = {}
+    for result in results:
+        params = result.get("params") or {}
+        key = result["benchmark"] + "".join(
+            " {}={}".format(name, params[name]) for name in sorted(params))
+        by_key[key] = result
+    return by_key
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="allowed slowdown in percent before failing (default: 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = 0
+    print("{:<90} {:>14} {:>14} {:>9}".format("benchmark", "baseline", "current", "change"))
+    for key in sorted(current):
+        result = current[key]
+        metric = result["primaryMetric"]
+        if key not in baseline:
+            print("{:<90} {:>14} {:>14.3f} {:>9}".format(key, "-", metric["score"], "new"))
+            continue
+        old = baseline[key]["primaryMetric"]["score"]
+        new = metric["score"]
+        if result["mode"] in HIGHER_IS_BETTER:
+            slowdown = (old - new) / old * 100.0 if old else 0.0
+        else:
+            slowdown = (new - old) / old * 100.0 if old else 0.0
+        flag = ""
+        if slowdown > args.threshold:
+            regressions += 1
+            flag = "  REGRESSION"
+        print("{:<90} {:>14.3f} {:>14.3f} {:>+8.1f}%{} ({})".format(
+            key, old, new, slowdown, flag, metric["scoreUnit"]))
+
+    for key in sorted(set(baseline) - set(current)):
+        print("{:<90} missing from current run".format(key))
+
+    if regressions:
+        print("\n{} benchmark(s) regressed by more than {:.0f}%".format(regressions, args.threshold))
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,53 @@
+package com.marocotransport.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maroctransit.auth.dto.ApiResponse;
+import com.maroctransit.auth.dto.BatchAssignmentDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of ApiResponse-wrapped list payloads, using the same ObjectMapper setup as Spring MVC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private List<BatchAssignmentDTO> payload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        payload = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            payload.add(new BatchAssignmentDTO((long) i, (long) (items - i), 12.5 + i, 0.75));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(payload));
+    }
+}
@@ -0,0 +1,52 @@
+package com.marocotransport.benchmark;
+
+import com.marocotransport.matching.AssignmentSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch assignment solve time on dense random cost matrices (500x500 and 5000x5000)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AssignmentBenchmark {
+
+    @Param({"500", "5000"})
+    public int size;
+
+    private double[][] cost;
+    private AssignmentSolver solver;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        cost = new double[size][size];
+        for (double[] row : cost) {
+            for (int j = 0; j < size; j++) {
+                row[j] = random.nextDouble();
+            }
+        }
+        solver = new AssignmentSolver();
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return solver.solve(cost);
+    }
+}
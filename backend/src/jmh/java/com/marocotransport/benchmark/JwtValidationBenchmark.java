@@ -0,0 +1,58 @@
+package com.marocotransport.benchmark;
+
+import com.marocotransport.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request JWT checks done by JwtAuthenticationFilter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokenProvider = new JwtTokenProvider();
+        setField("jwtSecret", "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+        setField("jwtExpiration", 3_600_000L);
+        setField("refreshExpiration", 86_400_000L);
+        token = tokenProvider.generateToken(
+                User.withUsername("shipper@maroctransport.ma").password("n/a").roles("SHIPPER").build());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String validateAndExtractUsername() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getUsernameFromToken(token) : null;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = JwtTokenProvider.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(tokenProvider, value);
+    }
+}
@@ -0,0 +1,83 @@
+package com.marocotransport.benchmark;
+
+import com.marocotransport.matching.CityCoordinates;
+import com.marocotransport.matching.FleetColumns;
+import com.marocotransport.matching.MatchScoringKernel;
+import com.marocotransport.matching.TruckSpatialIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request matching cost: candidate lookup in the spatial index and kernel ranking, for a burst of jobs
+ * against a fleet spread around the main Moroccan hubs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchingBenchmark {
+
+    static final String[] HUBS = {"Casablanca", "Rabat", "Marrakech", "Tanger", "Agadir", "Fes", "Oujda", "Laayoune"};
+
+    @Param({"1000", "10000"})
+    public int fleetSize;
+
+    @Param({"10", "100"})
+    public int jobCount;
+
+    private TruckSpatialIndex index;
+    private FleetColumns fleet;
+    private MatchScoringKernel kernel;
+    private double[][] jobOrigins;
+    private double[] jobWeights;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TruckSpatialIndex(0.5);
+        fleet = new FleetColumns(fleetSize);
+        for (int j = 0; j < fleetSize; j++) {
+            double[] hub = CityCoordinates.lookup(HUBS[j % HUBS.length]);
+            double lat = hub[0] + random.nextGaussian() * 0.3;
+            double lon = hub[1] + random.nextGaussian() * 0.3;
+            index.update((long) j, lat, lon);
+            fleet.set(j, j, lat, lon, 5 + random.nextInt(35), (byte) random.nextInt(5), random.nextInt(10) < 8);
+        }
+        kernel = new MatchScoringKernel();
+        jobOrigins = new double[jobCount][];
+        jobWeights = new double[jobCount];
+        for (int i = 0; i < jobCount; i++) {
+            jobOrigins[i] = CityCoordinates.lookup(HUBS[random.nextInt(HUBS.length)]);
+            jobWeights[i] = 1 + random.nextInt(30);
+        }
+    }
+
+    @Benchmark
+    public void spatialCandidates(Blackhole blackhole) {
+        for (double[] origin : jobOrigins) {
+            blackhole.consume(index.findCandidates(origin[0], origin[1], 150.0, 50));
+        }
+    }
+
+    @Benchmark
+    public void kernelTopTen(Blackhole blackhole) {
+        for (int i = 0; i < jobCount; i++) {
+            blackhole.consume(kernel.rank(jobOrigins[i][0], jobOrigins[i][1], jobWeights[i], 300.0, fleet, 10));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.marocotransport.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput in rows per second for bulk matching-result writes (1000 job-truck assignments per
+ * invocation, one transaction), comparing the id strategies on in-memory H2:
+ * IDENTITY with a generated-key read per row (what Hibernate does for IDENTITY ids, which rules out
+ * batching), a sequence call per row (allocationSize 1), and pooled-lo sequence blocks of 50 with JDBC
+ * batches of 50.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchingResultInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final int BLOCK = 50;
+
+    private Connection connection;
+    private PreparedStatement identityInsert;
+    private PreparedStatement sequenceInsert;
+    private PreparedStatement nextPerRow;
+    private PreparedStatement nextBlock;
+    private Timestamp now;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE results_identity (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "job_id BIGINT, truck_id BIGINT, score DOUBLE PRECISION, distance_km DOUBLE PRECISION, "
+                    + "created_at TIMESTAMP)");
+            statement.execute("CREATE TABLE results_sequence (id BIGINT PRIMARY KEY, "
+                    + "job_id BIGINT, truck_id BIGINT, score DOUBLE PRECISION, distance_km DOUBLE PRECISION, "
+                    + "created_at TIMESTAMP)");
+            statement.execute("CREATE SEQUENCE results_seq_1 START WITH 1 INCREMENT BY 1");
+            statement.execute("CREATE SEQUENCE results_seq_50 START WITH 1 INCREMENT BY " + BLOCK);
+        }
+        connection.setAutoCommit(false);
+        identityInsert = connection.prepareStatement(
+                "INSERT INTO results_identity (job_id, truck_id, score, distance_km, created_at) VALUES (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS);
+        sequenceInsert = connection.prepareStatement(
+                "INSERT INTO results_sequence (id, job_id, truck_id, score, distance_km, created_at) VALUES (?, ?, ?, ?, ?, ?)");
+        nextPerRow = connection.prepareStatement("VALUES NEXT VALUE FOR results_seq_1");
+        nextBlock = connection.prepareStatement("VALUES NEXT VALUE FOR results_seq_50");
+        now = new Timestamp(System.currentTimeMillis());
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE results_identity");
+            statement.execute("TRUNCATE TABLE results_sequence");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identityPerRow() throws SQLException {
+        long last = 0;
+        for (int i = 0; i < ROWS; i++) {
+            bind(identityInsert, 1, i);
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                last = keys.getLong(1);
+            }
+        }
+        connection.commit();
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long sequencePerRow() throws SQLException {
+        long last = 0;
+        for (int i = 0; i < ROWS; i++) {
+            last = next(nextPerRow);
+            sequenceInsert.setLong(1, last);
+            bind(sequenceInsert, 2, i);
+            sequenceInsert.executeUpdate();
+        }
+        connection.commit();
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pooledSequenceBatched() throws SQLException {
+        long id = 0;
+        long limit = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (id >= limit) {
+                id = next(nextBlock);
+                limit = id + BLOCK;
+            }
+            sequenceInsert.setLong(1, id++);
+            bind(sequenceInsert, 2, i);
+            sequenceInsert.addBatch();
+            if ((i + 1) % BLOCK == 0) {
+                sequenceInsert.executeBatch();
+            }
+        }
+        sequenceInsert.executeBatch();
+        connection.commit();
+        return id;
+    }
+
+    private void bind(PreparedStatement insert, int first, int i) throws SQLException {
+        insert.setLong(first, i);
+        insert.setLong(first + 1, i % 500);
+        insert.setDouble(first + 2, (i % 100) / 100.0);
+        insert.setDouble(first + 3, i % 300);
+        insert.setTimestamp(first + 4, now);
+    }
+
+    private static long next(PreparedStatement sequence) throws SQLException {
+        try (ResultSet value = sequence.executeQuery()) {
+            value.next();
+            return value.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.marocotransport.benchmark;
+
+import com.marocotransport.matching.CityCoordinates;
+import com.marocotransport.matching.FleetColumns;
+import com.marocotransport.matching.MatchScoringKernel;
+import com.marocotransport.matching.model.FeatureBatch;
+import com.marocotransport.matching.model.GradientBoostedTreesModel;
+import com.marocotransport.matching.model.LinearScoringModel;
+import com.marocotransport.matching.model.ScoringModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring-model throughput in job-truck pairs per second: one job scored against a 10k-truck fleet per
+ * invocation, through the kernel (feature extraction plus model)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringModelBenchmark {
+
+    private static final int PAIRS = 10_000;
+
+    @Param({"linear", "gbt"})
+    public String model;
+
+    private MatchScoringKernel kernel;
+    private FleetColumns fleet;
+    private double[] scores;
+    private double[] origin;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        fleet = new FleetColumns(PAIRS);
+        for (int j = 0; j < PAIRS; j++) {
+            double[] hub = CityCoordinates.lookup(MatchingBenchmark.HUBS[j % MatchingBenchmark.HUBS.length]);
+            fleet.set(j, j, hub[0] + random.nextGaussian() * 0.3, hub[1] + random.nextGaussian() * 0.3,
+                    5 + random.nextInt(35), (byte) random.nextInt(5), true);
+        }
+        ScoringModel scoringModel = "gbt".equals(model)
+                ? randomForest(random, 100, 5)
+                : LinearScoringModel.defaultModel();
+        kernel = new MatchScoringKernel(scoringModel);
+        scores = new double[PAIRS];
+        origin = CityCoordinates.lookup("Casablanca");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double[] scorePairs() {
+        kernel.score(origin[0], origin[1], 12.0, 300.0, fleet, scores);
+        return scores;
+    }
+
+    // Complete binary trees of the given depth with random splits over the model features
+    private static GradientBoostedTreesModel randomForest(Random random, int trees, int depth) {
+        int nodesPerTree = (1 << (depth + 1)) - 1;
+        int internal = (1 << depth) - 1;
+        int total = trees * nodesPerTree;
+        int[] roots = new int[trees];
+        int[] feature = new int[total];
+        double[] threshold = new double[total];
+        int[] left = new int[total];
+        int[] right = new int[total];
+        double[] value = new double[total];
+        for (int t = 0; t < trees; t++) {
+            int offset = t * nodesPerTree;
+            roots[t] = offset;
+            for (int k = 0; k < nodesPerTree; k++) {
+                int node = offset + k;
+                if (k < internal) {
+                    feature[node] = random.nextInt(3);
+                    threshold[node] = random.nextDouble();
+                    left[node] = offset + 2 * k + 1;
+                    right[node] = offset + 2 * k + 2;
+                } else {
+                    feature[node] = -1;
+                    value[node] = random.nextGaussian() * 0.1;
+                }
+            }
+        }
+        return new GradientBoostedTreesModel(0.0, 0.1, true, roots, feature, threshold, left, right, value,
+                "benchmark");
+    }
+}
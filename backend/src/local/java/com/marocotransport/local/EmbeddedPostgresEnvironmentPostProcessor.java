@@ -0,0 +1,76 @@
+package com.marocotransport.local;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.Profiles;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local stand-in for a primary and a read replica, without containers (postgres-local profile, built with
+ * -Ppostgres-local).
+ *
+ * Starts an embedded PostgreSQL server before the data sources are created and points both pools at it.
+ * Replica connections run every transaction as READ ONLY at the server, so a write routed to the replica
+ * fails instead of silently succeeding, and the two pools show up separately in pg_stat_activity under
+ * their application names. Replication lag is not simulated.
+ */
+public class EmbeddedPostgresEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    private static EmbeddedPostgres server;
+
+    // After application-*.properties are loaded, so profiles and local.postgres.* are known
+    @Override
+    public int getOrder() {
+        return ConfigDataEnvironmentPostProcessor.ORDER + 1;
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.acceptsProfiles(Profiles.of("postgres-local"))) {
+            return;
+        }
+        String jdbcUrl = start(environment).getJdbcUrl("postgres", "postgres");
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("datasource.primary.jdbc-url", jdbcUrl);
+        properties.put("datasource.primary.username", "postgres");
+        properties.put("datasource.primary.password", "");
+        properties.put("datasource.replica.jdbc-url", jdbcUrl + "&options=-c%20default_transaction_read_only%3Don");
+        properties.put("datasource.replica.username", "postgres");
+        properties.put("datasource.replica.password", "");
+        environment.getPropertySources().addFirst(new MapPropertySource("embeddedPostgres", properties));
+    }
+
+    // Started once per JVM, even if the environment is prepared again (e.g. by devtools restarts)
+    private static synchronized EmbeddedPostgres start(ConfigurableEnvironment environment) {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.builder()
+                        .setPort(environment.getProperty("local.postgres.port", Integer.class, 54320))
+                        .setDataDirectory(Paths.get(environment.getProperty("local.postgres.data-dir", "data/postgres")))
+                        .setCleanDataDirectory(false)
+                        .start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL", ex);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException ignored) {
+                    // Shutting down anyway
+                }
+            }, "embedded-postgres-shutdown"));
+        }
+        return server;
+    }
+}
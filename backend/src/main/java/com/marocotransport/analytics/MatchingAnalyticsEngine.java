@@ -0,0 +1,180 @@
+package com.marocotransport.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maroctransit.auth.dto.MatchingAnalyticsDTO;
+import com.marocotransport.matching.CityCoordinates;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Matching analytics maintained incrementally: every match and assignment event updates a few streaming
+ * aggregates (LongAdder counters, a fixed score histogram, an HDR histogram of time-to-assign), and a
+ * scheduled task folds them into an immutable snapshot. Reading analytics is then a field read, however
+ * much history has accumulated.
+ *
+ * Aggregates cover the lifetime of this instance.
+ */
+@Component
+public class MatchingAnalyticsEngine {
+
+    private static final int SCORE_BUCKETS = 10;
+    private static final int TOP_CITY_PAIRS = 20;
+    private static final String OTHER_PAIR = "other";
+    private static final long MAX_TRACKED_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private final int maxCityPairs;
+
+    private final LongAdder matchRequests = new LongAdder();
+    private final LongAdder matchResults = new LongAdder();
+    private final LongAdder assignments = new LongAdder();
+    private final LongAdder unassignedJobs = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder[] scoreHistogram = new LongAdder[SCORE_BUCKETS];
+    private final Map<String, LongAdder> cityPairs = new ConcurrentHashMap<>();
+
+    // Writers record into the recorder without locking; the snapshot task accumulates its intervals
+    private final Recorder timeToAssign = new Recorder(MAX_TRACKED_MILLIS, 3);
+    private final Histogram timeToAssignTotal = new Histogram(MAX_TRACKED_MILLIS, 3);
+    private Histogram recycled;
+
+    // Creation time of recently created jobs, to measure time-to-assign
+    private final Cache<Long, Long> jobCreatedAt;
+
+    private volatile MatchingAnalyticsDTO snapshot;
+
+    public MatchingAnalyticsEngine(@Value("${analytics.max-city-pairs:10000}") int maxCityPairs,
+                                   @Value("${analytics.tracked-jobs:100000}") long trackedJobs) {
+        this.maxCityPairs = maxCityPairs;
+        for (int i = 0; i < SCORE_BUCKETS; i++) {
+            scoreHistogram[i] = new LongAdder();
+        }
+        this.jobCreatedAt = Caffeine.newBuilder()
+                .maximumSize(trackedJobs)
+                .expireAfterWrite(Duration.ofMillis(MAX_TRACKED_MILLIS))
+                .build();
+        refreshSnapshot();
+    }
+
+    public void recordJobCreated(Long jobId) {
+        if (jobId != null) {
+            jobCreatedAt.put(jobId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * A matching run returned some candidates
+     */
+    public void recordMatchResults(int results) {
+        matchRequests.increment();
+        matchResults.add(results);
+    }
+
+    /**
+     * A job was assigned to a truck with the given match score
+     */
+    public void recordAssignment(Long jobId, String origin, String destination, double score) {
+        assignments.increment();
+
+        int bucket = (int) (Math.max(0.0, Math.min(1.0, score)) * SCORE_BUCKETS);
+        scoreHistogram[Math.min(bucket, SCORE_BUCKETS - 1)].increment();
+
+        String pair = cityPair(origin, destination);
+        LongAdder counter = cityPairs.get(pair);
+        if (counter == null) {
+            counter = cityPairs.computeIfAbsent(cityPairs.size() < maxCityPairs ? pair : OTHER_PAIR,
+                    key -> new LongAdder());
+        }
+        counter.increment();
+
+        Long createdAt = jobId != null ? jobCreatedAt.getIfPresent(jobId) : null;
+        if (createdAt != null) {
+            jobCreatedAt.invalidate(jobId);
+            long elapsed = System.currentTimeMillis() - createdAt;
+            timeToAssign.recordValue(Math.max(0, Math.min(MAX_TRACKED_MILLIS, elapsed)));
+        }
+    }
+
+    public void recordUnassigned(int jobs) {
+        unassignedJobs.add(jobs);
+    }
+
+    /**
+     * A carrier accepted or declined an assignment
+     */
+    public void recordDecision(boolean wasAccepted) {
+        (wasAccepted ? accepted : rejected).increment();
+    }
+
+    /**
+     * Latest precomputed snapshot
+     */
+    public MatchingAnalyticsDTO getSnapshot() {
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.snapshot-interval-ms:5000}")
+    public synchronized void refreshSnapshot() {
+        recycled = timeToAssign.getIntervalHistogram(recycled);
+        timeToAssignTotal.add(recycled);
+
+        MatchingAnalyticsDTO next = new MatchingAnalyticsDTO();
+        next.setMatchRequests(matchRequests.sum());
+        next.setMatchResults(matchResults.sum());
+        next.setAssignments(assignments.sum());
+        next.setUnassignedJobs(unassignedJobs.sum());
+
+        long acceptedCount = accepted.sum();
+        long rejectedCount = rejected.sum();
+        next.setAccepted(acceptedCount);
+        next.setRejected(rejectedCount);
+        long decisions = acceptedCount + rejectedCount;
+        next.setAcceptanceRate(decisions == 0 ? 0.0 : (double) acceptedCount / decisions);
+
+        List<Long> scores = new ArrayList<>(SCORE_BUCKETS);
+        for (LongAdder bucket : scoreHistogram) {
+            scores.add(bucket.sum());
+        }
+        next.setScoreHistogram(scores);
+
+        Map<String, Long> topPairs = new LinkedHashMap<>();
+        cityPairs.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_CITY_PAIRS)
+                .forEach(entry -> topPairs.put(entry.getKey(), entry.getValue()));
+        next.setTopCityPairs(topPairs);
+
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", timeToAssignTotal.getValueAtPercentile(50));
+        percentiles.put("p90", timeToAssignTotal.getValueAtPercentile(90));
+        percentiles.put("p99", timeToAssignTotal.getValueAtPercentile(99));
+        percentiles.put("max", timeToAssignTotal.getMaxValue());
+        percentiles.put("count", timeToAssignTotal.getTotalCount());
+        next.setTimeToAssignMillis(percentiles);
+
+        next.setGeneratedAt(System.currentTimeMillis());
+        snapshot = next;
+    }
+
+    private static String cityPair(String origin, String destination) {
+        return normalize(origin) + " -> " + normalize(destination);
+    }
+
+    private static String normalize(String city) {
+        return city == null ? "unknown" : CityCoordinates.normalize(city);
+    }
+}
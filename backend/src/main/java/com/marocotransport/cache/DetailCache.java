@@ -0,0 +1,135 @@
+package com.marocotransport.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maroctransit.auth.dto.JobDTO;
+import com.maroctransit.auth.dto.TruckDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for job and truck detail responses, with a strong ETag per cached entry.
+ *
+ * The ETag is a hash of the DTO's JSON form, so it changes exactly when the representation does and is
+ * stable across instances. Entries are bounded by size and TTL and are invalidated by the controllers on
+ * every update and delete. Hit ratios are exported through Micrometer (cache.gets, plus
+ * cache.detail.hit.ratio).
+ */
+@Component
+public class DetailCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Detail<JobDTO>> jobs;
+    private final Cache<Long, Detail<TruckDTO>> trucks;
+
+    public DetailCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       @Value("${cache.detail.max-size:10000}") long maxSize,
+                       @Value("${cache.detail.ttl-seconds:60}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.jobs = build(maxSize, ttlSeconds);
+        this.trucks = build(maxSize, ttlSeconds);
+        monitor(meterRegistry, jobs, "jobDetails");
+        monitor(meterRegistry, trucks, "truckDetails");
+    }
+
+    /**
+     * Cached job detail, loading it on a miss; empty if the job does not exist
+     */
+    public Optional<Detail<JobDTO>> getJob(Long id, Function<Long, Optional<JobDTO>> loader) {
+        return Optional.ofNullable(jobs.get(id, key -> loader.apply(key).map(this::detail).orElse(null)));
+    }
+
+    /**
+     * Cached truck detail, loading it on a miss; empty if the truck does not exist
+     */
+    public Optional<Detail<TruckDTO>> getTruck(Long id, Function<Long, Optional<TruckDTO>> loader) {
+        return Optional.ofNullable(trucks.get(id, key -> loader.apply(key).map(this::detail).orElse(null)));
+    }
+
+    public void invalidateJob(Long id) {
+        jobs.invalidate(id);
+    }
+
+    public void invalidateTruck(Long id) {
+        trucks.invalidate(id);
+    }
+
+    /**
+     * True if an If-None-Match header value matches the given ETag
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> Detail<T> detail(T value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(value));
+            // 64 bits of the digest are plenty to tell two versions of one entity apart
+            byte[] version = ByteBuffer.allocate(Long.BYTES).put(digest, 0, Long.BYTES).array();
+            return new Detail<>(value, '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(version) + '"');
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not compute ETag", ex);
+        }
+    }
+
+    private static <T> Cache<Long, Detail<T>> build(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<Long, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("cache.detail.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A cached DTO and its ETag
+     */
+    public static final class Detail<T> {
+        private final T value;
+        private final String etag;
+
+        Detail(T value, String etag) {
+            this.value = value;
+            this.etag = etag;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
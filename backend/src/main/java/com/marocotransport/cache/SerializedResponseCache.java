@@ -0,0 +1,150 @@
+package com.marocotransport.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maroctransit.auth.dto.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Cache of fully serialized {@link ApiResponse} success bodies for hot, non-personalized endpoints
+ * (the public job board).
+ *
+ * Each entry holds the UTF-8 JSON of a real {@code ApiResponse.success(data)} envelope, serialized by the
+ * application's ObjectMapper and split around its timestamp value. A hit writes the cached bytes straight to
+ * the servlet output stream with a freshly serialized timestamp in between (by default, matching
+ * {@link ApiResponse}'s "time of response" semantics) or with the timestamp captured when the entry was
+ * built ({@code cache.response.fresh-timestamp=false}). Keys are compared by value, so use a List of the
+ * request parameters (nulls allowed). Entries expire after a short TTL and are dropped whenever a job is
+ * written.
+ */
+@Component
+public class SerializedResponseCache {
+
+    // Placed in the envelope while serializing so the timestamp's bytes can be found and replaced
+    private static final LocalDateTime TIMESTAMP_PLACEHOLDER = LocalDateTime.of(1, 1, 1, 0, 0, 0, 123_456_789);
+
+    private final ObjectMapper objectMapper;
+    private final boolean freshTimestamp;
+    private final byte[] placeholder;
+    private final Cache<Object, Serialized> cache;
+
+    public SerializedResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                   @Value("${cache.response.max-size:1000}") long maxSize,
+                                   @Value("${cache.response.ttl-seconds:5}") long ttlSeconds,
+                                   @Value("${cache.response.fresh-timestamp:true}") boolean freshTimestamp)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        this.freshTimestamp = freshTimestamp;
+        this.placeholder = objectMapper.writeValueAsBytes(TIMESTAMP_PLACEHOLDER);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "serializedResponses");
+    }
+
+    /**
+     * Write {@code ApiResponse.success(data)} for the key, serializing the data only on a cache miss
+     */
+    public void writeSuccess(HttpServletResponse response, Object key, Supplier<?> data) throws IOException {
+        Serialized serialized;
+        try {
+            serialized = cache.get(key, k -> serialize(data.get()));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        byte[] timestamp = freshTimestamp && serialized.timestamp.length > 0
+                ? objectMapper.writeValueAsBytes(LocalDateTime.now())
+                : serialized.timestamp;
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(serialized.head.length + timestamp.length + serialized.tail.length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(serialized.head);
+        out.write(timestamp);
+        out.write(serialized.tail);
+    }
+
+    /**
+     * Write a one-off (uncached) response body, e.g. an error on a cached endpoint
+     */
+    public void write(HttpServletResponse response, HttpStatus status, ApiResponse<?> body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Serialized serialize(Object data) {
+        try {
+            ApiResponse<Object> envelope = ApiResponse.success(data);
+            LocalDateTime builtAt = envelope.getTimestamp();
+            envelope.setTimestamp(TIMESTAMP_PLACEHOLDER);
+            byte[] json = objectMapper.writeValueAsBytes(envelope);
+
+            // The timestamp follows the data, so the last occurrence is the envelope's own
+            int at = lastIndexOf(json, placeholder);
+            if (at < 0) {
+                // Timestamp not written by this mapper's configuration: serve the envelope as it is
+                envelope.setTimestamp(builtAt);
+                return new Serialized(objectMapper.writeValueAsBytes(envelope), new byte[0], new byte[0]);
+            }
+            return new Serialized(Arrays.copyOfRange(json, 0, at),
+                    objectMapper.writeValueAsBytes(builtAt),
+                    Arrays.copyOfRange(json, at + placeholder.length, json.length));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static int lastIndexOf(byte[] array, byte[] target) {
+        outer:
+        for (int i = array.length - target.length; i >= 0; i--) {
+            for (int j = 0; j < target.length; j++) {
+                if (array[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Envelope bytes before and after the timestamp value, plus the timestamp captured at serialization time
+     */
+    private static final class Serialized {
+        private final byte[] head;
+        private final byte[] timestamp;
+        private final byte[] tail;
+
+        Serialized(byte[] head, byte[] timestamp, byte[] tail) {
+            this.head = head;
+            this.timestamp = timestamp;
+            this.tail = tail;
+        }
+    }
+}
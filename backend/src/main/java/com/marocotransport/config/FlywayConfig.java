@@ -0,0 +1,59 @@
+package com.marocotransport.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Schema migrations with Flyway, one script set per database vendor under db/migration/{vendor}
+ * (h2, postgresql).
+ *
+ * The base tables are created by Hibernate, and the migrations add indexes, columns and sequences to them,
+ * so migrating is deferred until the EntityManagerFactory exists. It still completes during context
+ * refresh, before the web server accepts requests. Databases that predate Flyway are baselined at
+ * version 0, so every migration is applied to them once.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer vendorMigrationLocations() {
+        return configuration -> configuration
+                .locations("classpath:db/migration/" + vendor(configuration.getDataSource()))
+                .baselineOnMigrate(true)
+                .baselineVersion("0");
+    }
+
+    /**
+     * Skip Spring Boot's migration step, which runs before Hibernate has created the tables
+     */
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigration() {
+        return flyway -> { };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigrationAfterHibernate(Flyway flyway) {
+        return flyway::migrate;
+    }
+
+    private static String vendor(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(product).getId();
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Could not determine the database vendor for migrations", ex);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.marocotransport.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate defaults for batched writes: JDBC batching with inserts and updates ordered by entity so
+ * consecutive statements share a batch, and pooled-lo sequence allocation so entity ids and the bulk import
+ * allocator interpret the sequences the same way. Values set through spring.jpa.properties win.
+ */
+@Configuration
+public class HibernateBatchingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateBatchingCustomizer(
+            @Value("${persistence.jdbc.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+            properties.putIfAbsent("hibernate.order_inserts", "true");
+            properties.putIfAbsent("hibernate.order_updates", "true");
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", "true");
+            properties.putIfAbsent("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        };
+    }
+}
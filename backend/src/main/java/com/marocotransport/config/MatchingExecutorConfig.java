@@ -0,0 +1,41 @@
+package com.marocotransport.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor used by matching to load jobs and trucks concurrently.
+ *
+ * With spring.threads.virtual.enabled (Java 21) every load runs on its own virtual thread and only the
+ * number of loads in flight is capped; otherwise a small bounded platform-thread pool is used, and a full
+ * queue makes the request thread run the load itself.
+ */
+@Configuration
+public class MatchingExecutorConfig {
+
+    @Bean(name = "matchingLoadExecutor")
+    public AsyncTaskExecutor matchingLoadExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${matching.load.concurrency:10}") int concurrency) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("matching-load-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(concurrency);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("matching-load-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(1000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,21 @@
+package com.marocotransport.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the primary.
+ *
+ * The key is read when a connection is actually acquired, so this must sit behind a
+ * LazyConnectionDataSourceProxy: the transaction manager opens its connection before the read-only flag is
+ * published, and the proxy defers the real acquisition until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
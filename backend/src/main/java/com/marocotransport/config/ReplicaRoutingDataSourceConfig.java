@@ -0,0 +1,51 @@
+package com.marocotransport.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * PostgreSQL data access for the postgres profile: separate HikariCP pools for the primary and a read
+ * replica (datasource.primary.* and datasource.replica.* in application-postgres.properties), with
+ * read-only transactions routed to the replica.
+ *
+ * Writes and anything outside a read-only transaction use the primary. Replicas lag slightly, so code that
+ * must read its own writes should do so in a read-write transaction.
+ */
+@Configuration
+@Profile("postgres")
+public class ReplicaRoutingDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("datasource.primary")
+    public HikariDataSource primaryDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Target.PRIMARY, primaryDataSource,
+                ReplicaRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,12 @@
+package com.marocotransport.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background tasks (telemetry drain and flush)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,34 @@
+package com.marocotransport.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marocotransport.matching.model.LinearScoringModel;
+import com.marocotransport.matching.model.ScoringModel;
+import com.marocotransport.matching.model.ScoringModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Selects the match scoring model: the file at {@code matching.model.path} (linear or gradient-boosted
+ * trees, see {@link ScoringModels}) or the built-in linear heuristic when no path is set
+ */
+@Configuration
+public class ScoringModelConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringModelConfig.class);
+
+    @Bean
+    public ScoringModel scoringModel(ObjectMapper objectMapper,
+                                     @Value("${matching.model.path:}") String modelPath) throws IOException {
+        ScoringModel model = modelPath.isBlank()
+                ? LinearScoringModel.defaultModel()
+                : ScoringModels.load(Paths.get(modelPath), objectMapper);
+        logger.info("Match scoring model: {}", model.describe());
+        return model;
+    }
+}
@@ -0,0 +1,100 @@
+package com.marocotransport.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for rarely changing reference data, held in local size-bounded Caffeine
+ * caches through JCache.
+ *
+ * Every region is declared here with its own bound and time-to-live; a region that is not declared fails at
+ * startup rather than being created unbounded. Entities opt in with @Cache(region = ...) and queries with
+ * the org.hibernate.cacheable hint. Rows changed with plain JDBC bypass the cache, so an entity whose table
+ * is also written that way (trucks, whose positions telemetry writes through JdbcTemplate) is not cached.
+ * Hit, miss and put counts per region are published by Hibernate statistics as
+ * hibernate.second.level.cache.* metrics.
+ *
+ * Users are cached for the per-request lookups (UserService.getUserById, and UserRepository.findByEmail
+ * behind getUserByEmail and user-details loading). Hibernate keeps the region in step with its own writes,
+ * and UserService also evicts a changed or deleted user once the change commits, next to revoking its
+ * sessions. The region is local, so like token revocation it is only consistent with a single backend
+ * instance. Reads that run on the replica bypass it, so a lagging row never lands in the region that
+ * authentication reads.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String USERS = "users";
+    public static final String ROUTES = "routes";
+    public static final String USER_LOOKUPS = "user-lookups";
+    public static final String ROUTE_LOOKUPS = "route-lookups";
+
+    // Hibernate's default query result and table-timestamp regions
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${cache.l2.users.max-size:10000}") long usersMaxSize,
+            @Value("${cache.l2.users.ttl-minutes:10}") long usersTtlMinutes,
+            @Value("${cache.l2.routes.max-size:5000}") long routesMaxSize,
+            @Value("${cache.l2.routes.ttl-minutes:60}") long routesTtlMinutes,
+            @Value("${cache.l2.queries.max-size:10000}") long queriesMaxSize,
+            @Value("${cache.l2.queries.ttl-minutes:5}") long queriesTtlMinutes) {
+        // A manager of its own per application context: the provider's default manager is shared by the
+        // whole JVM, so a second context (test context cache, devtools restart) would find its regions taken
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-l2-" + UUID.randomUUID()), SecondLevelCacheConfig.class.getClassLoader());
+        cacheManager.createCache(USERS, region(usersMaxSize, usersTtlMinutes));
+        cacheManager.createCache(ROUTES, region(routesMaxSize, routesTtlMinutes));
+        cacheManager.createCache(USER_LOOKUPS, region(queriesMaxSize, queriesTtlMinutes));
+        cacheManager.createCache(ROUTE_LOOKUPS, region(queriesMaxSize, queriesTtlMinutes));
+        cacheManager.createCache(QUERY_RESULTS, region(queriesMaxSize, queriesTtlMinutes));
+        // One entry per table; must never be evicted or cached query results could outlive their data
+        cacheManager.createCache(UPDATE_TIMESTAMPS, unbounded());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            CacheManager hibernateCacheManager,
+            @Value("${cache.l2.statistics:true}") boolean statistics) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", "true");
+            properties.put("hibernate.cache.use_query_cache", "true");
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.put("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+            properties.putIfAbsent("hibernate.generate_statistics", String.valueOf(statistics));
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, long ttlMinutes) {
+        CaffeineConfiguration<Object, Object> configuration = unbounded();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofMinutes(ttlMinutes).toNanos()));
+        return configuration;
+    }
+
+    // Entries are Hibernate's immutable cache entries, so they are stored by reference rather than copied
+    private static CaffeineConfiguration<Object, Object> unbounded() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
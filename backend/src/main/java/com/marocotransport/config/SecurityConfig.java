@@ -2,11 +2,15 @@ package com.marocotransport.config;
 
 import com.marocotransport.security.JwtAuthenticationFilter;
 import com.marocotransport.security.JwtAuthenticationEntryPoint;
+import com.marocotransport.security.RateLimitingFilter;
+import com.marocotransport.service.UserService;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,7 +18,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -32,11 +35,20 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint unauthorizedHandler;
+    private final PasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final RateLimitingFilter rateLimitingFilter;
 
     public SecurityConfig(UserDetailsService userDetailsService, 
-                         JwtAuthenticationEntryPoint unauthorizedHandler) {
+                         JwtAuthenticationEntryPoint unauthorizedHandler,
+                         PasswordEncoder passwordEncoder,
+                         UserService userService,
+                         RateLimitingFilter rateLimitingFilter) {
         this.userDetailsService = userDetailsService;
         this.unauthorizedHandler = unauthorizedHandler;
+        this.passwordEncoder = passwordEncoder;
+        this.userService = userService;
+        this.rateLimitingFilter = rateLimitingFilter;
     }
     
     @Bean
@@ -44,15 +56,33 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         return new JwtAuthenticationFilter();
     }
     
+    /**
+     * The rate limiter only runs inside the security chain (after JWT authentication), not as a
+     * standalone servlet filter
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public FilterRegistrationBean<RateLimitingFilter> rateLimitingFilterRegistration() {
+        FilterRegistrationBean<RateLimitingFilter> registration = new FilterRegistrationBean<>(rateLimitingFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+    
+    /**
+     * Password checks go through the bounded hashing executor (BoundedPasswordEncoder); hashes with an
+     * outdated cost factor are re-hashed and stored after a successful login
+     */
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userService);
+        return provider;
     }
     
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(userDetailsService)
-            .passwordEncoder(passwordEncoder());
+        auth.authenticationProvider(authenticationProvider());
     }
     
     @Bean
@@ -82,5 +112,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         
         // Add JWT filter before UsernamePasswordAuthenticationFilter
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        
+        // Rate limit per principal (or client IP) once the JWT has been resolved
+        http.addFilterAfter(rateLimitingFilter, JwtAuthenticationFilter.class);
     }
 }
\ No newline at end of file
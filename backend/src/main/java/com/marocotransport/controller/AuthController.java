@@ -6,9 +6,16 @@ import com.maroctransit.auth.dto.LoginRequest;
 import com.maroctransit.auth.dto.SignUpRequest;
 import com.maroctransit.auth.security.JwtTokenProvider;
 import com.maroctransit.auth.service.UserService;
+import com.marocotransport.matching.RecommendationStore;
+import com.marocotransport.security.PasswordHashingRejectedException;
+import com.marocotransport.security.SignupUniquenessIndex;
+import com.marocotransport.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,6 +23,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -31,13 +39,22 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final SignupUniquenessIndex signupUniquenessIndex;
+    private final RecommendationStore recommendationStore;
 
     public AuthController(AuthenticationManager authenticationManager, 
                          JwtTokenProvider tokenProvider, 
-                         UserService userService) {
+                         UserService userService,
+                         TokenRevocationService tokenRevocationService,
+                         SignupUniquenessIndex signupUniquenessIndex,
+                         RecommendationStore recommendationStore) {
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.signupUniquenessIndex = signupUniquenessIndex;
+        this.recommendationStore = recommendationStore;
     }
 
     /**
@@ -70,19 +87,33 @@ public class AuthController {
     @PostMapping("/signup")
     @Operation(summary = "Register user", description = "Registers a new user with role selection")
     public ResponseEntity<ApiResponse<?>> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
-        if (userService.existsByUsername(signUpRequest.getUsername())) {
+        // Users are identified by their email; lookups are only needed when the filter has possibly seen it
+        String email = signUpRequest.getEmail();
+        if (signupUniquenessIndex.mightExist(email) && userService.existsByEmail(email)) {
             return ResponseEntity
                     .badRequest()
-                    .body(ApiResponse.error("Username is already taken!"));
+                    .body(ApiResponse.error("Email is already in use!"));
         }
 
-        if (userService.existsByEmail(signUpRequest.getEmail())) {
+        // The username is stored as the email, so it is the same check unless the request names another one
+        String username = signUpRequest.getUsername();
+        if (username != null && !username.trim().equalsIgnoreCase(email != null ? email.trim() : null)
+                && signupUniquenessIndex.mightExist(username) && userService.existsByUsername(username)) {
             return ResponseEntity
                     .badRequest()
-                    .body(ApiResponse.error("Email is already in use!"));
+                    .body(ApiResponse.error("Username is already taken!"));
         }
 
-        userService.createUser(signUpRequest);
+        try {
+            userService.createUser(signUpRequest);
+        } catch (DataIntegrityViolationException ex) {
+            // Registered concurrently or through another instance; the unique constraint caught it
+            return ResponseEntity
+                    .badRequest()
+                    .body(ApiResponse.error("Username or email is already in use!"));
+        }
+        // Signup creates the user outside UserService.saveUser, which records every other new address
+        signupUniquenessIndex.recordAdded(email);
         
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("User registered successfully"));
@@ -94,18 +125,80 @@ public class AuthController {
     @PostMapping("/refresh")
     @Operation(summary = "Refresh token", description = "Generate a new access token using refresh token")
     public ResponseEntity<ApiResponse<JwtAuthResponse>> refreshToken(@RequestParam("refreshToken") String refreshToken) {
-        if (!tokenProvider.validateToken(refreshToken)) {
+        Claims claims = tokenProvider.getValidClaims(refreshToken);
+        if (claims == null) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Invalid refresh token"));
         }
         
-        String username = tokenProvider.getUsernameFromToken(refreshToken);
-        UserDetails userDetails = userService.loadUserByUsername(username);
+        String username = claims.getSubject();
+        if (tokenRevocationService.isRevoked(refreshToken, username, claims.getIssuedAt())) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Refresh token has been revoked"));
+        }
+        
+        UserDetails userDetails;
+        try {
+            userDetails = userService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid refresh token"));
+        }
+        if (!userDetails.isEnabled()) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Account is disabled"));
+        }
         
         String accessToken = tokenProvider.generateToken(userDetails);
         JwtAuthResponse response = new JwtAuthResponse(accessToken, refreshToken);
         
         return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", response));
     }
+
+    /**
+     * Revoke the presented access token and, when given, the refresh token issued with it
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revokes the bearer access token and the optional refresh token until they expire")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestParam(value = "refreshToken", required = false) String refreshToken) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ApiResponse.error("Missing bearer token"));
+        }
+
+        String token = authorization.substring(7);
+        Claims claims = tokenProvider.getValidClaims(token);
+        if (claims != null) {
+            tokenRevocationService.revokeToken(token, claims.getExpiration());
+            // Stop background refreshes under the authentication captured from this session
+            recommendationStore.evict(claims.getSubject());
+        }
+        if (refreshToken != null) {
+            Claims refreshClaims = tokenProvider.getValidClaims(refreshToken);
+            // Only the caller's own refresh token can be revoked this way
+            if (refreshClaims != null && claims != null && refreshClaims.getSubject().equals(claims.getSubject())) {
+                tokenRevocationService.revokeToken(refreshToken, refreshClaims.getExpiration());
+            }
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
+    }
+
+    /**
+     * Password hashing is saturated: ask the client to back off instead of queueing
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleHashingRejected(PasswordHashingRejectedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.marocotransport.controller;
+
+import com.marocotransport.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Bulk NDJSON exports for BI synchronisation (Admin only)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/export")
+@Tag(name = "Data Export", description = "Streaming newline-delimited JSON exports")
+public class ExportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Stream all users
+     */
+    @GetMapping(value = "/users", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Export users", 
+        description = "Stream all users as newline-delimited JSON",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        prepare(response, "users");
+        exportService.exportUsers(response.getOutputStream());
+    }
+
+    /**
+     * Stream all jobs
+     */
+    @GetMapping(value = "/jobs", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Export jobs", 
+        description = "Stream all jobs as newline-delimited JSON",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public void exportJobs(HttpServletResponse response) throws IOException {
+        prepare(response, "jobs");
+        exportService.exportTable("jobs", response.getOutputStream());
+    }
+
+    /**
+     * Stream all trucks
+     */
+    @GetMapping(value = "/trucks", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Export trucks", 
+        description = "Stream all trucks as newline-delimited JSON",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public void exportTrucks(HttpServletResponse response) throws IOException {
+        prepare(response, "trucks");
+        exportService.exportTable("trucks", response.getOutputStream());
+    }
+
+    private void prepare(HttpServletResponse response, String name) {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + name + ".ndjson\"");
+    }
+}
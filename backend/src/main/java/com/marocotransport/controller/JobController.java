@@ -1,21 +1,39 @@
 package com.marocotransport.controller;
 
 import com.maroctransit.auth.dto.ApiResponse;
+import com.maroctransit.auth.dto.BulkImportResultDTO;
 import com.maroctransit.auth.dto.JobDTO;
 import com.maroctransit.auth.dto.JobRequest;
 import com.maroctransit.auth.service.JobService;
+import com.marocotransport.analytics.MatchingAnalyticsEngine;
+import com.marocotransport.cache.DetailCache;
+import com.marocotransport.cache.SerializedResponseCache;
+import com.marocotransport.matching.RecommendationStore;
+import com.marocotransport.repository.IdAllocationException;
+import com.marocotransport.repository.JobListingRepository;
+import com.marocotransport.service.BulkImportService;
+import com.marocotransport.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for managing jobs
@@ -25,10 +43,30 @@ import java.util.List;
 @Tag(name = "Job Management", description = "APIs for managing transport jobs")
 public class JobController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final JobService jobService;
+    private final JobListingRepository jobListingRepository;
+    private final DetailCache detailCache;
+    private final SerializedResponseCache responseCache;
+    private final MatchingAnalyticsEngine matchingAnalytics;
+    private final RecommendationStore recommendationStore;
+    private final BulkImportService bulkImportService;
 
-    public JobController(JobService jobService) {
+    public JobController(JobService jobService, 
+                        JobListingRepository jobListingRepository, 
+                        DetailCache detailCache,
+                        SerializedResponseCache responseCache,
+                        MatchingAnalyticsEngine matchingAnalytics,
+                        RecommendationStore recommendationStore,
+                        BulkImportService bulkImportService) {
         this.jobService = jobService;
+        this.jobListingRepository = jobListingRepository;
+        this.detailCache = detailCache;
+        this.responseCache = responseCache;
+        this.matchingAnalytics = matchingAnalytics;
+        this.recommendationStore = recommendationStore;
+        this.bulkImportService = bulkImportService;
     }
 
     /**
@@ -43,41 +81,112 @@ public class JobController {
     )
     public ResponseEntity<ApiResponse<JobDTO>> createJob(@Valid @RequestBody JobRequest jobRequest) {
         JobDTO createdJob = jobService.createJob(jobRequest);
+        responseCache.invalidateAll();
+        recommendationStore.markJobsChanged();
+        matchingAnalytics.recordJobCreated(createdJob.getId());
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Job created successfully", createdJob));
     }
 
     /**
-     * Get all jobs with optional filtering
+     * Create many jobs from a CSV or NDJSON upload (Shipper only)
      */
-    @GetMapping
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('SHIPPER')")
+    @Operation(
+        summary = "Bulk import jobs", 
+        description = "Create jobs from a streamed CSV (with header) or NDJSON upload; invalid rows are reported, not fatal",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<BulkImportResultDTO>> importJobs(
+            HttpServletRequest request, 
+            Authentication authentication) throws IOException {
+        
+        BulkImportResultDTO result = bulkImportService.importJobs(
+                request.getInputStream(),
+                BulkImportService.Format.fromContentType(request.getContentType()),
+                authentication.getName());
+        if (result.getImported() > 0) {
+            responseCache.invalidateAll();
+            recommendationStore.markJobsChanged();
+            result.getImportedIds().forEach(matchingAnalytics::recordJobCreated);
+        }
+        return ResponseEntity.ok(ApiResponse.success("Imported " + result.getImported() + " of "
+                + result.getReceived() + " jobs", result));
+    }
+
+    /**
+     * Get all jobs with optional filtering (public job board; served as pre-serialized JSON)
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(
         summary = "Get all jobs", 
         description = "Get all jobs with optional filtering"
     )
-    public ResponseEntity<ApiResponse<List<JobDTO>>> getAllJobs(
+    public void getAllJobs(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String origin,
             @RequestParam(required = false) String destination,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletResponse response) throws IOException {
         
-        List<JobDTO> jobs = jobService.getAllJobs(status, origin, destination, page, size);
-        return ResponseEntity.ok(ApiResponse.success(jobs));
+        List<Object> key = Arrays.asList("jobs", status, origin, destination, page, size);
+        responseCache.writeSuccess(response, key,
+                () -> jobService.getAllJobs(status, origin, destination, page, size));
     }
 
     /**
-     * Get job by ID
+     * Get jobs page by page with an opaque cursor (stable latency at any depth)
+     */
+    @GetMapping(value = "/feed", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get jobs by cursor", 
+        description = "Keyset-paginated job listing, newest first; pass nextCursor to get the following page"
+    )
+    public void getJobFeed(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletResponse response) throws IOException {
+        
+        KeysetCursor after;
+        try {
+            after = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            responseCache.write(response, HttpStatus.BAD_REQUEST, ApiResponse.error("Invalid cursor"));
+            return;
+        }
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Object> key = Arrays.asList("feed", status, origin, destination, cursor, pageSize);
+        responseCache.writeSuccess(response, key,
+                () -> jobListingRepository.findPage(status, origin, destination, after, pageSize));
+    }
+
+    /**
+     * Get job by ID (served from the detail cache; supports If-None-Match)
      */
     @GetMapping("/{id}")
     @Operation(
         summary = "Get job by ID", 
         description = "Get detailed information about a specific job"
     )
-    public ResponseEntity<ApiResponse<JobDTO>> getJobById(@PathVariable Long id) {
-        return jobService.getJobById(id)
-                .map(job -> ResponseEntity.ok(ApiResponse.success(job)))
+    public ResponseEntity<ApiResponse<JobDTO>> getJobById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return detailCache.getJob(id, jobService::getJobById)
+                .map(job -> DetailCache.matches(ifNoneMatch, job.getEtag())
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(job.getEtag())
+                                .<ApiResponse<JobDTO>>build()
+                        : ResponseEntity.ok()
+                                .eTag(job.getEtag())
+                                .cacheControl(CacheControl.noCache())
+                                .body(ApiResponse.success(job.getValue())))
                 .orElse(ResponseEntity
                         .status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("Job not found with id: " + id)));
@@ -97,7 +206,13 @@ public class JobController {
             @PathVariable Long id,
             @Valid @RequestBody JobRequest jobRequest) {
         
-        return jobService.updateJob(id, jobRequest)
+        Optional<JobDTO> updatedJob = jobService.updateJob(id, jobRequest);
+        detailCache.invalidateJob(id);
+        responseCache.invalidateAll();
+        // An edited job can leave the lists showing it and enter others
+        recommendationStore.markJobsRemoved(List.of(id));
+        recommendationStore.markJobsChanged();
+        return updatedJob
                 .map(job -> ResponseEntity.ok(ApiResponse.success("Job updated successfully", job)))
                 .orElse(ResponseEntity
                         .status(HttpStatus.NOT_FOUND)
@@ -116,6 +231,9 @@ public class JobController {
     )
     public ResponseEntity<ApiResponse<Void>> deleteJob(@PathVariable Long id) {
         boolean deleted = jobService.deleteJob(id);
+        detailCache.invalidateJob(id);
+        responseCache.invalidateAll();
+        recommendationStore.markJobsRemoved(List.of(id));
         
         if (deleted) {
             return ResponseEntity.ok(ApiResponse.success("Job deleted successfully", null));
@@ -125,4 +243,14 @@ public class JobController {
                     .body(ApiResponse.error("Job not found or you don't have permission to delete"));
         }
     }
+
+    /**
+     * Ids for imported jobs cannot be reserved (e.g. migrations have not run)
+     */
+    @ExceptionHandler(IdAllocationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdAllocation(IdAllocationException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error("Bulk import is temporarily unavailable"));
+    }
 }
\ No newline at end of file
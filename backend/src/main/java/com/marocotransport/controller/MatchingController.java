@@ -1,14 +1,30 @@
 package com.marocotransport.controller;
 
 import com.maroctransit.auth.dto.ApiResponse;
+import com.maroctransit.auth.dto.BatchAssignmentDTO;
+import com.maroctransit.auth.dto.BatchMatchingRequestDTO;
+import com.maroctransit.auth.dto.BatchMatchingResultDTO;
+import com.maroctransit.auth.dto.MatchingAnalyticsDTO;
 import com.maroctransit.auth.dto.MatchingRequestDTO;
 import com.maroctransit.auth.dto.MatchingResultDTO;
+import com.maroctransit.auth.dto.TourPlanDTO;
+import com.maroctransit.auth.dto.TourPlanRequestDTO;
 import com.maroctransit.auth.service.MatchingService;
+import com.marocotransport.analytics.MatchingAnalyticsEngine;
+import com.marocotransport.matching.RecommendationStore;
+import com.marocotransport.matching.TourPlannerBusyException;
+import com.marocotransport.repository.JobAssignmentRepository;
+import com.marocotransport.security.TruckAccess;
+import com.marocotransport.service.BatchMatchingService;
+import com.marocotransport.service.TourPlanningService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -23,9 +39,27 @@ import java.util.List;
 public class MatchingController {
 
     private final MatchingService matchingService;
+    private final BatchMatchingService batchMatchingService;
+    private final MatchingAnalyticsEngine matchingAnalytics;
+    private final RecommendationStore recommendationStore;
+    private final TourPlanningService tourPlanningService;
+    private final JobAssignmentRepository jobAssignmentRepository;
+    private final TruckAccess truckAccess;
 
-    public MatchingController(MatchingService matchingService) {
+    public MatchingController(MatchingService matchingService, 
+                             BatchMatchingService batchMatchingService,
+                             MatchingAnalyticsEngine matchingAnalytics,
+                             RecommendationStore recommendationStore,
+                             TourPlanningService tourPlanningService,
+                             JobAssignmentRepository jobAssignmentRepository,
+                             TruckAccess truckAccess) {
         this.matchingService = matchingService;
+        this.batchMatchingService = batchMatchingService;
+        this.matchingAnalytics = matchingAnalytics;
+        this.recommendationStore = recommendationStore;
+        this.tourPlanningService = tourPlanningService;
+        this.jobAssignmentRepository = jobAssignmentRepository;
+        this.truckAccess = truckAccess;
     }
 
     /**
@@ -44,10 +78,84 @@ public class MatchingController {
         List<MatchingResultDTO> matchingResults = matchingService.matchJobsToTrucks(
                 matchingRequest.getJobIds(), 
                 matchingRequest.getParameters());
+        matchingAnalytics.recordMatchResults(matchingResults.size());
         
         return ResponseEntity.ok(ApiResponse.success("Matching completed successfully", matchingResults));
     }
 
+    /**
+     * Assign many jobs to many trucks as one globally optimal assignment
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('SHIPPER', 'ADMIN')")
+    @Operation(
+        summary = "Batch match jobs to trucks", 
+        description = "Solve N jobs against M trucks as a single assignment so no truck is picked twice",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<BatchMatchingResultDTO>> matchBatch(
+            @Valid @RequestBody BatchMatchingRequestDTO batchRequest,
+            Authentication authentication) {
+        
+        BatchMatchingResultDTO result;
+        try {
+            result = batchMatchingService.assign(
+                    batchRequest.getJobIds(), 
+                    batchRequest.getTruckIds(), 
+                    batchRequest.getMaxDistanceKm(),
+                    TruckAccess.isAdmin(authentication) ? null : authentication.getName());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ApiResponse.error(ex.getMessage()));
+        }
+        if (!result.getAssignments().isEmpty()) {
+            // Assigned jobs and trucks are taken: only the lists showing them are stale
+            recommendationStore.markJobsRemoved(result.getAssignments().stream()
+                    .map(BatchAssignmentDTO::getJobId).toList());
+            recommendationStore.markTrucksRemoved(result.getAssignments().stream()
+                    .map(BatchAssignmentDTO::getTruckId).toList());
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success("Batch matching completed successfully", result));
+    }
+
+    /**
+     * Plan a multi-stop tour for one truck over a set of candidate jobs
+     */
+    @PostMapping("/tours")
+    @PreAuthorize("hasAnyRole('CARRIER', 'ADMIN')")
+    @Operation(
+        summary = "Plan truck tour", 
+        description = "Order pickups and deliveries of candidate jobs into one capacity-feasible tour within a time budget",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<TourPlanDTO>> planTour(
+            @Valid @RequestBody TourPlanRequestDTO tourRequest,
+            Authentication authentication) {
+        
+        // Carriers may only plan for their own trucks; others' trucks look the same as missing ones
+        if (!truckAccess.canAccess(authentication, tourRequest.getTruckId())) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Truck not found"));
+        }
+        try {
+            return tourPlanningService.planTour(
+                            tourRequest.getTruckId(), 
+                            tourRequest.getJobIds(), 
+                            tourRequest.getTimeBudgetMillis())
+                    .map(plan -> ResponseEntity.ok(ApiResponse.success("Tour planned successfully", plan)))
+                    .orElse(ResponseEntity
+                            .status(HttpStatus.NOT_FOUND)
+                            .body(ApiResponse.error("Truck not found")));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ApiResponse.error(ex.getMessage()));
+        }
+    }
+
     /**
      * Match trucks to available jobs using ML
      */
@@ -64,12 +172,13 @@ public class MatchingController {
         List<MatchingResultDTO> matchingResults = matchingService.matchTrucksToJobs(
                 matchingRequest.getTruckIds(), 
                 matchingRequest.getParameters());
+        matchingAnalytics.recordMatchResults(matchingResults.size());
         
         return ResponseEntity.ok(ApiResponse.success("Matching completed successfully", matchingResults));
     }
 
     /**
-     * Get matching recommendations based on historical data
+     * Get matching recommendations based on historical data (precomputed per user)
      */
     @GetMapping("/recommendations")
     @PreAuthorize("hasAnyRole('SHIPPER', 'CARRIER')")
@@ -81,13 +190,49 @@ public class MatchingController {
     public ResponseEntity<ApiResponse<List<MatchingResultDTO>>> getRecommendations(
             @RequestParam(defaultValue = "5") int limit) {
         
-        List<MatchingResultDTO> recommendations = matchingService.getRecommendations(limit);
+        try {
+            List<MatchingResultDTO> recommendations = recommendationStore.get(
+                    SecurityContextHolder.getContext().getAuthentication(), limit);
+            return ResponseEntity.ok(ApiResponse.success("Recommendations generated successfully", recommendations));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ApiResponse.error(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Record a carrier's decision on an assignment (feeds the acceptance rate)
+     */
+    @PostMapping("/assignments/{jobId}/decision")
+    @PreAuthorize("hasRole('CARRIER')")
+    @Operation(
+        summary = "Accept or decline an assignment", 
+        description = "Record whether the carrier accepted the job assigned to their truck (once per assignment)",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<Void>> recordAssignmentDecision(
+            @PathVariable Long jobId,
+            @RequestParam boolean accepted,
+            Authentication authentication) {
         
-        return ResponseEntity.ok(ApiResponse.success("Recommendations generated successfully", recommendations));
+        switch (jobAssignmentRepository.recordDecision(jobId, authentication.getName(), accepted)) {
+            case RECORDED:
+                matchingAnalytics.recordDecision(accepted);
+                return ResponseEntity.ok(ApiResponse.success("Decision recorded", null));
+            case ALREADY_DECIDED:
+                return ResponseEntity
+                        .status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("A decision was already recorded for this assignment"));
+            default:
+                return ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("No assignment of job " + jobId + " to your trucks"));
+        }
     }
 
     /**
-     * Get matching analytics and insights
+     * Get matching analytics and insights (precomputed snapshot, refreshed every few seconds)
      */
     @GetMapping("/analytics")
     @PreAuthorize("hasAnyRole('SHIPPER', 'CARRIER', 'ADMIN')")
@@ -96,9 +241,16 @@ public class MatchingController {
         description = "Get analytics and insights about matching patterns",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public ResponseEntity<ApiResponse<Object>> getMatchingAnalytics() {
-        Object analytics = matchingService.getMatchingAnalytics();
+    public ResponseEntity<ApiResponse<MatchingAnalyticsDTO>> getMatchingAnalytics() {
+        MatchingAnalyticsDTO analytics = matchingAnalytics.getSnapshot();
         
         return ResponseEntity.ok(ApiResponse.success("Analytics generated successfully", analytics));
     }
+
+    @ExceptionHandler(TourPlannerBusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePlannerBusy(TourPlannerBusyException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
 }
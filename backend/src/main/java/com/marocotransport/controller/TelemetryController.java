@@ -0,0 +1,106 @@
+package com.marocotransport.controller;
+
+import com.maroctransit.auth.dto.ApiResponse;
+import com.maroctransit.auth.dto.PositionReportDTO;
+import com.maroctransit.auth.dto.TelemetryBatchRequestDTO;
+import com.maroctransit.auth.dto.TelemetryIngestResultDTO;
+import com.marocotransport.security.TruckAccess;
+import com.marocotransport.telemetry.TelemetryIngestService;
+import com.marocotransport.telemetry.TruckPosition;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Controller for GPS telemetry ingest from truck tracking integrations
+ */
+@RestController
+@RequestMapping("/api/v1/telemetry")
+@Tag(name = "Telemetry", description = "Batched GPS position ingest")
+public class TelemetryController {
+
+    private final TelemetryIngestService telemetryIngestService;
+    private final TruckAccess truckAccess;
+
+    public TelemetryController(TelemetryIngestService telemetryIngestService, TruckAccess truckAccess) {
+        this.telemetryIngestService = telemetryIngestService;
+        this.truckAccess = truckAccess;
+    }
+
+    /**
+     * Submit a batch of truck positions (Carrier can only report own trucks)
+     */
+    @PostMapping("/positions")
+    @PreAuthorize("hasAnyRole('CARRIER', 'ADMIN')")
+    @Operation(
+        summary = "Report truck positions", 
+        description = "Queue a batch of GPS positions; they are applied asynchronously. "
+                + "Positions for unknown trucks, or for trucks the carrier does not own, are dropped",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<TelemetryIngestResultDTO>> reportPositions(
+            @Valid @RequestBody TelemetryBatchRequestDTO batchRequest,
+            Authentication authentication) {
+
+        List<PositionReportDTO> positions = batchRequest.getPositions();
+        Set<Long> permittedTrucks = truckAccess.accessibleTrucks(authentication, positions.stream()
+                .map(PositionReportDTO::getTruckId)
+                .collect(Collectors.toSet()));
+        if (permittedTrucks.isEmpty()) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("None of the reported trucks exist or belong to you"));
+        }
+        List<PositionReportDTO> permitted = positions.stream()
+                .filter(position -> permittedTrucks.contains(position.getTruckId()))
+                .collect(Collectors.toList());
+
+        int accepted = telemetryIngestService.ingest(permitted);
+        TelemetryIngestResultDTO result = new TelemetryIngestResultDTO(accepted, positions.size() - accepted);
+        if (accepted == 0) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(ApiResponse.error("Telemetry buffer is full, retry shortly", result));
+        }
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Positions queued", result));
+    }
+
+    /**
+     * Get the latest reported position of a truck (Carrier can only see own trucks)
+     */
+    @GetMapping("/trucks/{id}/position")
+    @PreAuthorize("hasAnyRole('CARRIER', 'ADMIN')")
+    @Operation(
+        summary = "Get latest truck position", 
+        description = "Latest GPS position received for a truck since startup",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<TruckPosition>> getLatestPosition(
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        TruckPosition position = truckAccess.canAccess(authentication, id)
+                ? telemetryIngestService.getLatestPosition(id)
+                : null;
+        if (position == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No position reported for truck with id: " + id));
+        }
+        return ResponseEntity.ok(ApiResponse.success(position));
+    }
+}
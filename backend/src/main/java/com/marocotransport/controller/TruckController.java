@@ -1,20 +1,41 @@
 package com.marocotransport.controller;
 
 import com.maroctransit.auth.dto.ApiResponse;
+import com.maroctransit.auth.dto.BulkImportResultDTO;
+import com.maroctransit.auth.dto.CursorPage;
 import com.maroctransit.auth.dto.TruckDTO;
 import com.maroctransit.auth.dto.TruckRequest;
+import com.maroctransit.auth.dto.TruckAvailabilityEvent;
 import com.maroctransit.auth.dto.TruckAvailabilityRequest;
+import com.maroctransit.auth.dto.TruckSummaryDTO;
 import com.maroctransit.auth.service.TruckService;
+import com.marocotransport.cache.DetailCache;
+import com.marocotransport.matching.RecommendationStore;
+import com.marocotransport.matching.TruckSpatialIndex;
+import com.marocotransport.realtime.TruckAvailabilityBroadcaster;
+import com.marocotransport.repository.IdAllocationException;
+import com.marocotransport.repository.TruckListingRepository;
+import com.marocotransport.security.TruckAccess;
+import com.marocotransport.service.BulkImportService;
+import com.marocotransport.telemetry.TelemetryIngestService;
+import com.marocotransport.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -25,10 +46,36 @@ import java.util.List;
 @Tag(name = "Truck Management", description = "APIs for managing trucks and their availability")
 public class TruckController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final TruckService truckService;
+    private final TruckSpatialIndex truckSpatialIndex;
+    private final TruckListingRepository truckListingRepository;
+    private final TruckAvailabilityBroadcaster availabilityBroadcaster;
+    private final DetailCache detailCache;
+    private final RecommendationStore recommendationStore;
+    private final BulkImportService bulkImportService;
+    private final TelemetryIngestService telemetryIngestService;
+    private final TruckAccess truckAccess;
 
-    public TruckController(TruckService truckService) {
+    public TruckController(TruckService truckService, 
+                          TruckSpatialIndex truckSpatialIndex, 
+                          TruckListingRepository truckListingRepository,
+                          TruckAvailabilityBroadcaster availabilityBroadcaster,
+                          DetailCache detailCache,
+                          RecommendationStore recommendationStore,
+                          BulkImportService bulkImportService,
+                          TelemetryIngestService telemetryIngestService,
+                          TruckAccess truckAccess) {
         this.truckService = truckService;
+        this.truckSpatialIndex = truckSpatialIndex;
+        this.truckListingRepository = truckListingRepository;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.detailCache = detailCache;
+        this.recommendationStore = recommendationStore;
+        this.bulkImportService = bulkImportService;
+        this.telemetryIngestService = telemetryIngestService;
+        this.truckAccess = truckAccess;
     }
 
     /**
@@ -42,12 +89,38 @@ public class TruckController {
         security = @SecurityRequirement(name = "bearerAuth")
     )
     public ResponseEntity<ApiResponse<TruckDTO>> registerTruck(@Valid @RequestBody TruckRequest truckRequest) {
-        TruckDTO registeredTruck = truckService.registerTruck(truckRequest);
+        TruckDTO registeredTruck = onTruckChanged(truckService.registerTruck(truckRequest));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Truck registered successfully", registeredTruck));
     }
 
+    /**
+     * Register many trucks from a CSV or NDJSON upload (Carrier only)
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('CARRIER')")
+    @Operation(
+        summary = "Bulk import trucks", 
+        description = "Register trucks from a streamed CSV (with header) or NDJSON upload; invalid rows are reported, not fatal",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<BulkImportResultDTO>> importTrucks(
+            HttpServletRequest request, 
+            Authentication authentication) throws IOException {
+        
+        BulkImportResultDTO result = bulkImportService.importTrucks(
+                request.getInputStream(),
+                BulkImportService.Format.fromContentType(request.getContentType()),
+                authentication.getName());
+        if (result.getImported() > 0) {
+            // Imported trucks are already indexed and announced to dashboards by the import service
+            recommendationStore.markTrucksChanged();
+        }
+        return ResponseEntity.ok(ApiResponse.success("Imported " + result.getImported() + " of "
+                + result.getReceived() + " trucks", result));
+    }
+
     /**
      * Get all trucks with optional filtering
      */
@@ -70,18 +143,87 @@ public class TruckController {
     }
 
     /**
-     * Get truck by ID
+     * Get trucks page by page with an opaque cursor (Carrier sees only their trucks)
+     */
+    @GetMapping("/feed")
+    @PreAuthorize("hasAnyRole('CARRIER', 'ADMIN')")
+    @Operation(
+        summary = "Get trucks by cursor", 
+        description = "Keyset-paginated truck listing, newest first (Carrier sees only their trucks)",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<CursorPage<TruckSummaryDTO>>> getTruckFeed(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        
+        KeysetCursor after;
+        try {
+            after = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ApiResponse.error("Invalid cursor"));
+        }
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CursorPage<TruckSummaryDTO> trucks = truckListingRepository.findPage(
+                TruckAccess.isAdmin(authentication) ? null : authentication.getName(),
+                type, location, available, after, pageSize);
+        return ResponseEntity.ok(ApiResponse.success(trucks));
+    }
+
+    /**
+     * Subscribe to live truck availability and location changes (Carrier sees only their trucks)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('CARRIER', 'ADMIN')")
+    @Operation(
+        summary = "Stream truck availability", 
+        description = "Server-sent events with incremental availability and location deltas (Carrier sees only their trucks)",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<SseEmitter> streamTruckAvailability(Authentication authentication) {
+        SseEmitter emitter = availabilityBroadcaster.subscribe(
+                TruckAccess.isAdmin(authentication) ? null : authentication.getName());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Get truck by ID (Carrier can only see own trucks; served from the detail cache; supports If-None-Match)
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('CARRIER', 'ADMIN')")
     @Operation(
         summary = "Get truck by ID", 
-        description = "Get detailed information about a specific truck",
+        description = "Get detailed information about a specific truck (Carrier can only see own trucks)",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public ResponseEntity<ApiResponse<TruckDTO>> getTruckById(@PathVariable Long id) {
-        return truckService.getTruckById(id)
-                .map(truck -> ResponseEntity.ok(ApiResponse.success(truck)))
+    public ResponseEntity<ApiResponse<TruckDTO>> getTruckById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        // The cache is shared by all callers, so ownership is checked before it is consulted
+        if (!truckAccess.canAccess(authentication, id)) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Truck not found with id: " + id));
+        }
+        return detailCache.getTruck(id, truckService::getTruckById)
+                .map(truck -> DetailCache.matches(ifNoneMatch, truck.getEtag())
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(truck.getEtag())
+                                .<ApiResponse<TruckDTO>>build()
+                        : ResponseEntity.ok()
+                                .eTag(truck.getEtag())
+                                .cacheControl(CacheControl.noCache())
+                                .body(ApiResponse.success(truck.getValue())))
                 .orElse(ResponseEntity
                         .status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("Truck not found with id: " + id)));
@@ -102,6 +244,7 @@ public class TruckController {
             @Valid @RequestBody TruckRequest truckRequest) {
         
         return truckService.updateTruck(id, truckRequest)
+                .map(this::onTruckChanged)
                 .map(truck -> ResponseEntity.ok(ApiResponse.success("Truck updated successfully", truck)))
                 .orElse(ResponseEntity
                         .status(HttpStatus.NOT_FOUND)
@@ -123,6 +266,7 @@ public class TruckController {
             @Valid @RequestBody TruckAvailabilityRequest availabilityRequest) {
         
         return truckService.updateTruckAvailability(id, availabilityRequest)
+                .map(this::onTruckChanged)
                 .map(truck -> ResponseEntity.ok(ApiResponse.success("Truck availability updated", truck)))
                 .orElse(ResponseEntity
                         .status(HttpStatus.NOT_FOUND)
@@ -139,10 +283,12 @@ public class TruckController {
         description = "Delete an existing truck (Carrier can only delete own trucks)",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public ResponseEntity<ApiResponse<Void>> deleteTruck(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Void>> deleteTruck(@PathVariable Long id, Authentication authentication) {
         boolean deleted = truckService.deleteTruck(id);
         
         if (deleted) {
+            // Only the owner can delete, and the truck can no longer be looked up
+            onTruckRemoved(id, authentication.getName());
             return ResponseEntity.ok(ApiResponse.success("Truck deleted successfully", null));
         } else {
             return ResponseEntity
@@ -150,4 +296,38 @@ public class TruckController {
                     .body(ApiResponse.error("Truck not found or you don't have permission to delete"));
         }
     }
+
+    /**
+     * Keep in-memory views of the fleet in sync after a truck is registered or updated
+     */
+    private TruckDTO onTruckChanged(TruckDTO truck) {
+        detailCache.invalidateTruck(truck.getId());
+        truckSpatialIndex.update(truck);
+        availabilityBroadcaster.publish(TruckAvailabilityEvent.updated(truck));
+        // An edited truck can leave the lists showing it and enter others
+        recommendationStore.markTrucksRemoved(List.of(truck.getId()));
+        recommendationStore.markTrucksChanged();
+        return truck;
+    }
+
+    /**
+     * Drop a deleted truck from in-memory views of the fleet
+     */
+    private void onTruckRemoved(Long id, String owner) {
+        detailCache.invalidateTruck(id);
+        truckSpatialIndex.remove(id);
+        telemetryIngestService.removeTruck(id);
+        availabilityBroadcaster.publish(TruckAvailabilityEvent.removed(id), owner);
+        recommendationStore.markTrucksRemoved(List.of(id));
+    }
+
+    /**
+     * Ids for imported trucks cannot be reserved (e.g. migrations have not run)
+     */
+    @ExceptionHandler(IdAllocationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdAllocation(IdAllocationException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error("Bulk import is temporarily unavailable"));
+    }
 }
\ No newline at end of file
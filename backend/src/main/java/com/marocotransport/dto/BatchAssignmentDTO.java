@@ -0,0 +1,55 @@
+package com.maroctransit.auth.dto;
+
+/**
+ * One job-truck pair chosen by the batch assignment
+ */
+public class BatchAssignmentDTO {
+
+    private Long jobId;
+    private Long truckId;
+    private double distanceKm;
+    private double score;
+
+    public BatchAssignmentDTO() {
+    }
+
+    public BatchAssignmentDTO(Long jobId, Long truckId, double distanceKm, double score) {
+        this.jobId = jobId;
+        this.truckId = truckId;
+        this.distanceKm = distanceKm;
+        this.score = score;
+    }
+
+    // Getters and setters
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getTruckId() {
+        return truckId;
+    }
+
+    public void setTruckId(Long truckId) {
+        this.truckId = truckId;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
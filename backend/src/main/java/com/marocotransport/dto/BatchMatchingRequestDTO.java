@@ -0,0 +1,48 @@
+package com.maroctransit.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for batch matching requests: many jobs solved against many trucks as one assignment
+ */
+public class BatchMatchingRequestDTO {
+
+    @NotEmpty(message = "At least one job id is required")
+    @Size(max = 500, message = "At most 500 jobs per batch")
+    private List<Long> jobIds;
+
+    // Optional; when empty, candidates are taken from the trucks available near each job's origin
+    @Size(max = 2000, message = "At most 2000 trucks per batch")
+    private List<Long> truckIds;
+
+    @Positive(message = "Max distance must be positive")
+    private double maxDistanceKm = 300.0;
+
+    // Getters and setters
+    public List<Long> getJobIds() {
+        return jobIds;
+    }
+
+    public void setJobIds(List<Long> jobIds) {
+        this.jobIds = jobIds;
+    }
+
+    public List<Long> getTruckIds() {
+        return truckIds;
+    }
+
+    public void setTruckIds(List<Long> truckIds) {
+        this.truckIds = truckIds;
+    }
+
+    public double getMaxDistanceKm() {
+        return maxDistanceKm;
+    }
+
+    public void setMaxDistanceKm(double maxDistanceKm) {
+        this.maxDistanceKm = maxDistanceKm;
+    }
+}
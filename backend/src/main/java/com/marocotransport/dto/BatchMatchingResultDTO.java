@@ -0,0 +1,58 @@
+package com.maroctransit.auth.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch matching run: the globally optimal assignment plus the jobs that could not be served
+ */
+public class BatchMatchingResultDTO {
+
+    private List<BatchAssignmentDTO> assignments;
+    private List<Long> unassignedJobIds;
+    private double totalDistanceKm;
+    private long solveTimeMillis;
+
+    public BatchMatchingResultDTO() {
+    }
+
+    public BatchMatchingResultDTO(List<BatchAssignmentDTO> assignments, List<Long> unassignedJobIds,
+                                  double totalDistanceKm, long solveTimeMillis) {
+        this.assignments = assignments;
+        this.unassignedJobIds = unassignedJobIds;
+        this.totalDistanceKm = totalDistanceKm;
+        this.solveTimeMillis = solveTimeMillis;
+    }
+
+    // Getters and setters
+    public List<BatchAssignmentDTO> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(List<BatchAssignmentDTO> assignments) {
+        this.assignments = assignments;
+    }
+
+    public List<Long> getUnassignedJobIds() {
+        return unassignedJobIds;
+    }
+
+    public void setUnassignedJobIds(List<Long> unassignedJobIds) {
+        this.unassignedJobIds = unassignedJobIds;
+    }
+
+    public double getTotalDistanceKm() {
+        return totalDistanceKm;
+    }
+
+    public void setTotalDistanceKm(double totalDistanceKm) {
+        this.totalDistanceKm = totalDistanceKm;
+    }
+
+    public long getSolveTimeMillis() {
+        return solveTimeMillis;
+    }
+
+    public void setSolveTimeMillis(long solveTimeMillis) {
+        this.solveTimeMillis = solveTimeMillis;
+    }
+}
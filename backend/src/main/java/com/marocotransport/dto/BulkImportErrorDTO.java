@@ -0,0 +1,35 @@
+package com.maroctransit.auth.dto;
+
+/**
+ * A rejected row of a bulk import; rows are numbered from 1, not counting a CSV header
+ */
+public class BulkImportErrorDTO {
+
+    private long row;
+    private String message;
+
+    public BulkImportErrorDTO() {
+    }
+
+    public BulkImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    // Getters and setters
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
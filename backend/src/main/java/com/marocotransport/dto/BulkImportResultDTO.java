@@ -0,0 +1,88 @@
+package com.maroctransit.auth.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: ids of the inserted rows (in input order) and the rows that were rejected
+ */
+public class BulkImportResultDTO {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private List<Long> importedIds;
+    private List<BulkImportErrorDTO> errors;
+    private boolean errorsTruncated;
+    private long elapsedMillis;
+
+    public BulkImportResultDTO() {
+    }
+
+    public BulkImportResultDTO(long received, long imported, long failed, List<Long> importedIds,
+                               List<BulkImportErrorDTO> errors, boolean errorsTruncated, long elapsedMillis) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.importedIds = importedIds;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and setters
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<Long> getImportedIds() {
+        return importedIds;
+    }
+
+    public void setImportedIds(List<Long> importedIds) {
+        this.importedIds = importedIds;
+    }
+
+    public List<BulkImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
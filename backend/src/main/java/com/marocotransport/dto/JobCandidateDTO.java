@@ -0,0 +1,52 @@
+package com.maroctransit.auth.dto;
+
+/**
+ * Matching projection of a job: only the columns that assignment and tour planning read
+ */
+public class JobCandidateDTO {
+
+    private Long id;
+    private String origin;
+    private String destination;
+    private Double weight;
+
+    public JobCandidateDTO(Long id, String origin, String destination, Double weight) {
+        this.id = id;
+        this.origin = origin;
+        this.destination = destination;
+        this.weight = weight;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public Double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Double weight) {
+        this.weight = weight;
+    }
+}
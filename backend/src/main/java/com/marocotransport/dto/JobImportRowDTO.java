@@ -0,0 +1,47 @@
+package com.maroctransit.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One job in a bulk import (a CSV record or an NDJSON line); imported jobs are always created open
+ */
+public class JobImportRowDTO {
+
+    @NotBlank(message = "Origin is required")
+    @Size(max = 100, message = "Origin must be at most 100 characters")
+    private String origin;
+
+    @NotBlank(message = "Destination is required")
+    @Size(max = 100, message = "Destination must be at most 100 characters")
+    private String destination;
+
+    @Positive(message = "Weight must be positive")
+    private Double weight;
+
+    // Getters and setters
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public Double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Double weight) {
+        this.weight = weight;
+    }
+}
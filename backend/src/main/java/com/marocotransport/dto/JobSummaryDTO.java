@@ -0,0 +1,64 @@
+package com.maroctransit.auth.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing projection of a job: only the columns shown on job boards
+ */
+public class JobSummaryDTO {
+
+    private Long id;
+    private String origin;
+    private String destination;
+    private String status;
+    private LocalDateTime createdAt;
+
+    public JobSummaryDTO(Long id, String origin, String destination, String status, LocalDateTime createdAt) {
+        this.id = id;
+        this.origin = origin;
+        this.destination = destination;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,119 @@
+package com.maroctransit.auth.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed snapshot of matching analytics
+ */
+public class MatchingAnalyticsDTO {
+
+    private long matchRequests;
+    private long matchResults;
+    private long assignments;
+    private long unassignedJobs;
+
+    // "origin -> destination" to number of assignments, busiest first
+    private Map<String, Long> topCityPairs;
+
+    // Assignment score counts in buckets of width 0.1, from [0, 0.1) to [0.9, 1.0]
+    private List<Long> scoreHistogram;
+
+    private long accepted;
+    private long rejected;
+    private double acceptanceRate;
+
+    // Job creation to assignment, in milliseconds: p50, p90, p99, max and count
+    private Map<String, Long> timeToAssignMillis;
+
+    private long generatedAt;
+
+    // Getters and setters
+    public long getMatchRequests() {
+        return matchRequests;
+    }
+
+    public void setMatchRequests(long matchRequests) {
+        this.matchRequests = matchRequests;
+    }
+
+    public long getMatchResults() {
+        return matchResults;
+    }
+
+    public void setMatchResults(long matchResults) {
+        this.matchResults = matchResults;
+    }
+
+    public long getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(long assignments) {
+        this.assignments = assignments;
+    }
+
+    public long getUnassignedJobs() {
+        return unassignedJobs;
+    }
+
+    public void setUnassignedJobs(long unassignedJobs) {
+        this.unassignedJobs = unassignedJobs;
+    }
+
+    public Map<String, Long> getTopCityPairs() {
+        return topCityPairs;
+    }
+
+    public void setTopCityPairs(Map<String, Long> topCityPairs) {
+        this.topCityPairs = topCityPairs;
+    }
+
+    public List<Long> getScoreHistogram() {
+        return scoreHistogram;
+    }
+
+    public void setScoreHistogram(List<Long> scoreHistogram) {
+        this.scoreHistogram = scoreHistogram;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public double getAcceptanceRate() {
+        return acceptanceRate;
+    }
+
+    public void setAcceptanceRate(double acceptanceRate) {
+        this.acceptanceRate = acceptanceRate;
+    }
+
+    public Map<String, Long> getTimeToAssignMillis() {
+        return timeToAssignMillis;
+    }
+
+    public void setTimeToAssignMillis(Map<String, Long> timeToAssignMillis) {
+        this.timeToAssignMillis = timeToAssignMillis;
+    }
+
+    public long getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(long generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.maroctransit.auth.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for a batch of GPS positions sent by a carrier's tracking integration
+ */
+public class TelemetryBatchRequestDTO {
+
+    @NotEmpty(message = "At least one position is required")
+    @Size(max = 5000, message = "At most 5000 positions per batch")
+    private List<@Valid PositionReportDTO> positions;
+
+    // Getters and setters
+    public List<PositionReportDTO> getPositions() {
+        return positions;
+    }
+
+    public void setPositions(List<PositionReportDTO> positions) {
+        this.positions = positions;
+    }
+}
@@ -0,0 +1,32 @@
+package com.maroctransit.auth.dto;
+
+/**
+ * DTO describing how many positions of a batch were queued for processing
+ */
+public class TelemetryIngestResultDTO {
+
+    private int accepted;
+    private int dropped;
+
+    public TelemetryIngestResultDTO(int accepted, int dropped) {
+        this.accepted = accepted;
+        this.dropped = dropped;
+    }
+
+    // Getters and setters
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(int dropped) {
+        this.dropped = dropped;
+    }
+}
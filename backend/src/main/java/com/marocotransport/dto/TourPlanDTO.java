@@ -0,0 +1,78 @@
+package com.maroctransit.auth.dto;
+
+import java.util.List;
+
+/**
+ * Result of tour planning: ordered stops for one truck, plus the candidate jobs that did not fit
+ */
+public class TourPlanDTO {
+
+    private Long truckId;
+    private List<TourStopDTO> stops;
+    private List<Long> unservedJobIds;
+    private double totalDistanceKm;
+    private double estimatedMinutes;
+    private long elapsedMillis;
+
+    public TourPlanDTO() {
+    }
+
+    public TourPlanDTO(Long truckId, List<TourStopDTO> stops, List<Long> unservedJobIds,
+                       double totalDistanceKm, double estimatedMinutes, long elapsedMillis) {
+        this.truckId = truckId;
+        this.stops = stops;
+        this.unservedJobIds = unservedJobIds;
+        this.totalDistanceKm = totalDistanceKm;
+        this.estimatedMinutes = estimatedMinutes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and setters
+    public Long getTruckId() {
+        return truckId;
+    }
+
+    public void setTruckId(Long truckId) {
+        this.truckId = truckId;
+    }
+
+    public List<TourStopDTO> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<TourStopDTO> stops) {
+        this.stops = stops;
+    }
+
+    public List<Long> getUnservedJobIds() {
+        return unservedJobIds;
+    }
+
+    public void setUnservedJobIds(List<Long> unservedJobIds) {
+        this.unservedJobIds = unservedJobIds;
+    }
+
+    public double getTotalDistanceKm() {
+        return totalDistanceKm;
+    }
+
+    public void setTotalDistanceKm(double totalDistanceKm) {
+        this.totalDistanceKm = totalDistanceKm;
+    }
+
+    public double getEstimatedMinutes() {
+        return estimatedMinutes;
+    }
+
+    public void setEstimatedMinutes(double estimatedMinutes) {
+        this.estimatedMinutes = estimatedMinutes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
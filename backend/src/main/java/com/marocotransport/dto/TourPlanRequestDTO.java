@@ -0,0 +1,49 @@
+package com.maroctransit.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for tour planning requests: one truck and the candidate jobs it could carry in a single tour
+ */
+public class TourPlanRequestDTO {
+
+    @NotNull(message = "Truck id is required")
+    private Long truckId;
+
+    @NotEmpty(message = "At least one job id is required")
+    @Size(max = 200, message = "At most 200 candidate jobs per tour")
+    private List<Long> jobIds;
+
+    // Optional; capped by the server's maximum planning budget
+    @Positive(message = "Time budget must be positive")
+    private Long timeBudgetMillis;
+
+    // Getters and setters
+    public Long getTruckId() {
+        return truckId;
+    }
+
+    public void setTruckId(Long truckId) {
+        this.truckId = truckId;
+    }
+
+    public List<Long> getJobIds() {
+        return jobIds;
+    }
+
+    public void setJobIds(List<Long> jobIds) {
+        this.jobIds = jobIds;
+    }
+
+    public Long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public void setTimeBudgetMillis(Long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+}
@@ -0,0 +1,67 @@
+package com.maroctransit.auth.dto;
+
+/**
+ * One stop of a planned tour: a pickup or delivery of a job
+ */
+public class TourStopDTO {
+
+    public enum StopType { PICKUP, DELIVERY }
+
+    private Long jobId;
+    private StopType type;
+    private String city;
+    private double loadAfterStop;
+    private double cumulativeDistanceKm;
+
+    public TourStopDTO() {
+    }
+
+    public TourStopDTO(Long jobId, StopType type, String city, double loadAfterStop, double cumulativeDistanceKm) {
+        this.jobId = jobId;
+        this.type = type;
+        this.city = city;
+        this.loadAfterStop = loadAfterStop;
+        this.cumulativeDistanceKm = cumulativeDistanceKm;
+    }
+
+    // Getters and setters
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public StopType getType() {
+        return type;
+    }
+
+    public void setType(StopType type) {
+        this.type = type;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public double getLoadAfterStop() {
+        return loadAfterStop;
+    }
+
+    public void setLoadAfterStop(double loadAfterStop) {
+        this.loadAfterStop = loadAfterStop;
+    }
+
+    public double getCumulativeDistanceKm() {
+        return cumulativeDistanceKm;
+    }
+
+    public void setCumulativeDistanceKm(double cumulativeDistanceKm) {
+        this.cumulativeDistanceKm = cumulativeDistanceKm;
+    }
+}
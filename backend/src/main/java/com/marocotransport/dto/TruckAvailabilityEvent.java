@@ -0,0 +1,108 @@
+package com.maroctransit.auth.dto;
+
+/**
+ * Incremental truck availability/location change pushed to dispatch dashboards
+ */
+public class TruckAvailabilityEvent {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String REMOVED = "REMOVED";
+    public static final String MOVED = "MOVED";
+
+    private String type;
+    private Long truckId;
+    private Boolean available;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+    private long timestamp;
+
+    public TruckAvailabilityEvent(String type, Long truckId, Boolean available, String location,
+                                  Double latitude, Double longitude) {
+        this.type = type;
+        this.truckId = truckId;
+        this.available = available;
+        this.location = location;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Create an event for a registered or updated truck
+     */
+    public static TruckAvailabilityEvent updated(TruckDTO truck) {
+        return new TruckAvailabilityEvent(UPDATED, truck.getId(), truck.isAvailable(), truck.getLocation(), null, null);
+    }
+
+    /**
+     * Create an event for a GPS position report
+     */
+    public static TruckAvailabilityEvent moved(Long truckId, double latitude, double longitude) {
+        return new TruckAvailabilityEvent(MOVED, truckId, null, null, latitude, longitude);
+    }
+
+    /**
+     * Create an event for a deleted truck
+     */
+    public static TruckAvailabilityEvent removed(Long truckId) {
+        return new TruckAvailabilityEvent(REMOVED, truckId, false, null, null, null);
+    }
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getTruckId() {
+        return truckId;
+    }
+
+    public void setTruckId(Long truckId) {
+        this.truckId = truckId;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,62 @@
+package com.maroctransit.auth.dto;
+
+/**
+ * Matching projection of a truck: only the columns the scoring kernel reads
+ */
+public class TruckCandidateDTO {
+
+    private Long id;
+    private String location;
+    private Double capacity;
+    private String fuelType;
+    private boolean available;
+
+    public TruckCandidateDTO(Long id, String location, Double capacity, String fuelType, boolean available) {
+        this.id = id;
+        this.location = location;
+        this.capacity = capacity;
+        this.fuelType = fuelType;
+        this.available = available;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Double getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Double capacity) {
+        this.capacity = capacity;
+    }
+
+    public String getFuelType() {
+        return fuelType;
+    }
+
+    public void setFuelType(String fuelType) {
+        this.fuelType = fuelType;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,68 @@
+package com.maroctransit.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One truck in a bulk import (a CSV record or an NDJSON line)
+ */
+public class TruckImportRowDTO {
+
+    @NotBlank(message = "Type is required")
+    @Size(max = 50, message = "Type must be at most 50 characters")
+    private String type;
+
+    @NotBlank(message = "Location is required")
+    @Size(max = 100, message = "Location must be at most 100 characters")
+    private String location;
+
+    @Positive(message = "Capacity must be positive")
+    private Double capacity;
+
+    private String fuelType;
+
+    // Optional; imported trucks are available unless stated otherwise
+    private Boolean available;
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Double getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Double capacity) {
+        this.capacity = capacity;
+    }
+
+    public String getFuelType() {
+        return fuelType;
+    }
+
+    public void setFuelType(String fuelType) {
+        this.fuelType = fuelType;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,64 @@
+package com.maroctransit.auth.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing projection of a truck: only the columns shown in fleet listings
+ */
+public class TruckSummaryDTO {
+
+    private Long id;
+    private String type;
+    private String location;
+    private boolean available;
+    private LocalDateTime createdAt;
+
+    public TruckSummaryDTO(Long id, String type, String location, boolean available, LocalDateTime createdAt) {
+        this.id = id;
+        this.type = type;
+        this.location = location;
+        this.available = available;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
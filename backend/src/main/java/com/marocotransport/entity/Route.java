@@ -0,0 +1,60 @@
+package com.marocotransport.entity;
+
+import com.marocotransport.config.SecondLevelCacheConfig;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+@Entity
+@Table(name = "routes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ROUTES)
+public class Route {
+    // Pooled sequence ids (blocks of 50) keep inserts batchable; see the V4__sequence_ids.sql migration
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "routes_seq")
+    @SequenceGenerator(name = "routes_seq", sequenceName = "routes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String origin;
+
+    @Column(nullable = false)
+    private String destination;
+
+    // Road distance in kilometers
+    private Double distance;
+
+    // Driving time in minutes
+    private Integer estimatedTime;
+
+    private Double tollCost;
+
+    private Double fuelCost;
+
+    @Column(nullable = false)
+    private boolean isActive = true;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getOrigin() { return origin; }
+    public void setOrigin(String origin) { this.origin = origin; }
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; }
+    public Double getDistance() { return distance; }
+    public void setDistance(Double distance) { this.distance = distance; }
+    public Integer getEstimatedTime() { return estimatedTime; }
+    public void setEstimatedTime(Integer estimatedTime) { this.estimatedTime = estimatedTime; }
+    public Double getTollCost() { return tollCost; }
+    public void setTollCost(Double tollCost) { this.tollCost = tollCost; }
+    public Double getFuelCost() { return fuelCost; }
+    public void setFuelCost(Double fuelCost) { this.fuelCost = fuelCost; }
+    public boolean isActive() { return isActive; }
+    public void setActive(boolean active) { isActive = active; }
+}
@@ -0,0 +1,228 @@
+package com.marocotransport.matching;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Minimum-cost assignment of rows (jobs) to columns (trucks) on a dense {@code double[][]} cost matrix.
+ *
+ * Uses the Hungarian method in its shortest-augmenting-path form (O(n^2 m) for n rows and m columns).
+ * Each augmenting step scans every column; for wide matrices that scan is split across a ForkJoin pool.
+ * Pairs that must never be matched should carry {@link #FORBIDDEN}; a row left with a forbidden pair in the
+ * optimal solution is reported as unassigned.
+ */
+public class AssignmentSolver {
+
+    /**
+     * Cost for pairs that must not be assigned (kept finite so potentials stay well-defined)
+     */
+    public static final double FORBIDDEN = 1e9;
+
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public AssignmentSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public AssignmentSolver(ForkJoinPool pool, int parallelThreshold) {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Solve the assignment problem.
+     *
+     * @param cost cost[row][col], rectangular
+     * @return for each row the assigned column, or -1 when the row is unassigned
+     */
+    public int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int cols = cost[0].length;
+        if (rows <= cols) {
+            return solveWide(cost, rows, cols);
+        }
+        // More jobs than trucks: solve the transposed problem and map back
+        double[][] transposed = new double[cols][rows];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                transposed[j][i] = cost[i][j];
+            }
+        }
+        int[] colToRow = solveWide(transposed, cols, rows);
+        int[] rowToCol = new int[rows];
+        Arrays.fill(rowToCol, -1);
+        for (int j = 0; j < cols; j++) {
+            if (colToRow[j] >= 0) {
+                rowToCol[colToRow[j]] = j;
+            }
+        }
+        return rowToCol;
+    }
+
+    private int[] solveWide(double[][] a, int n, int m) {
+        // 1-based potentials and matching, column 0 is the virtual source
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        boolean parallel = m >= parallelThreshold && pool.getParallelism() > 1;
+        Scan scan = parallel ? new Scan(a, u, v, p, way, minv, used) : null;
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double delta;
+                int j1;
+                if (parallel) {
+                    scan.prepare(i0, j0);
+                    pool.invoke(scan.root(m));
+                    delta = scan.delta;
+                    j1 = scan.j1;
+                } else {
+                    delta = Double.POSITIVE_INFINITY;
+                    j1 = 0;
+                    double[] row = a[i0 - 1];
+                    double ui = u[i0];
+                    for (int j = 1; j <= m; j++) {
+                        if (!used[j]) {
+                            double cur = row[j - 1] - ui - v[j];
+                            if (cur < minv[j]) {
+                                minv[j] = cur;
+                                way[j] = j0;
+                            }
+                            if (minv[j] < delta) {
+                                delta = minv[j];
+                                j1 = j;
+                            }
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0 && a[p[j] - 1][j - 1] < FORBIDDEN) {
+                assignment[p[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Parallel column scan: relaxes minv/way for the current row and finds the column with the smallest
+     * reduced cost. Chunks write disjoint column ranges; the per-chunk minima are combined on join.
+     */
+    private static final class Scan {
+        private static final int CHUNK = 1024;
+
+        final double[][] a;
+        final double[] u;
+        final double[] v;
+        final int[] p;
+        final int[] way;
+        final double[] minv;
+        final boolean[] used;
+        int i0;
+        int j0;
+        double delta;
+        int j1;
+
+        Scan(double[][] a, double[] u, double[] v, int[] p, int[] way, double[] minv, boolean[] used) {
+            this.a = a;
+            this.u = u;
+            this.v = v;
+            this.p = p;
+            this.way = way;
+            this.minv = minv;
+            this.used = used;
+        }
+
+        void prepare(int i0, int j0) {
+            this.i0 = i0;
+            this.j0 = j0;
+        }
+
+        Chunk root(int m) {
+            return new Chunk(1, m + 1);
+        }
+
+        private final class Chunk extends RecursiveAction {
+            final int from;
+            final int to;
+            double localDelta = Double.POSITIVE_INFINITY;
+            int localJ1;
+
+            Chunk(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= CHUNK) {
+                    double[] row = a[i0 - 1];
+                    double ui = u[i0];
+                    for (int j = from; j < to; j++) {
+                        if (!used[j]) {
+                            double cur = row[j - 1] - ui - v[j];
+                            if (cur < minv[j]) {
+                                minv[j] = cur;
+                                way[j] = j0;
+                            }
+                            if (minv[j] < localDelta) {
+                                localDelta = minv[j];
+                                localJ1 = j;
+                            }
+                        }
+                    }
+                } else {
+                    int mid = (from + to) >>> 1;
+                    Chunk left = new Chunk(from, mid);
+                    Chunk right = new Chunk(mid, to);
+                    invokeAll(left, right);
+                    if (right.localDelta < left.localDelta) {
+                        localDelta = right.localDelta;
+                        localJ1 = right.localJ1;
+                    } else {
+                        localDelta = left.localDelta;
+                        localJ1 = left.localJ1;
+                    }
+                }
+                if (from == 1 && to == minv.length) {
+                    delta = localDelta;
+                    j1 = localJ1;
+                }
+            }
+        }
+    }
+}
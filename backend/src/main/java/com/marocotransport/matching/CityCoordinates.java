@@ -0,0 +1,129 @@
+package com.marocotransport.matching;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Static coordinates for the Moroccan cities used as job origins/destinations and truck locations
+ */
+public final class CityCoordinates {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final Map<String, double[]> CITIES = new HashMap<>();
+
+    // One canonical name per city, in declaration order; aliases map to the same index
+    private static final List<String> CANONICAL = new ArrayList<>();
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+
+    static {
+        put(33.5731, -7.5898, "casablanca", "casa");
+        put(34.0209, -6.8416, "rabat");
+        put(31.6295, -7.9811, "marrakech", "marrakesh");
+        put(34.0181, -5.0078, "fes", "fez");
+        put(35.7595, -5.8340, "tanger", "tangier", "tangiers");
+        put(30.4278, -9.5981, "agadir");
+        put(33.8935, -5.5473, "meknes");
+        put(34.6814, -1.9086, "oujda");
+        put(34.2610, -6.5802, "kenitra");
+        put(35.5889, -5.3626, "tetouan");
+        put(32.2994, -9.2372, "safi");
+        put(33.2316, -8.5007, "el jadida");
+        put(35.1740, -2.9287, "nador");
+        put(32.3373, -6.3498, "beni mellal");
+        put(27.1253, -13.1625, "laayoune");
+        put(23.6848, -15.9580, "dakhla");
+        put(31.5085, -9.7595, "essaouira");
+        put(30.9189, -6.8934, "ouarzazate");
+        put(33.6866, -7.3830, "mohammedia");
+        put(32.8811, -6.9063, "khouribga");
+        put(33.0010, -7.6166, "settat");
+        put(31.9314, -4.4244, "errachidia");
+        put(34.2133, -4.0103, "taza");
+        put(35.2517, -3.9372, "al hoceima");
+        put(28.9870, -10.0574, "guelmim");
+        put(35.1932, -6.1557, "larache");
+        put(33.2655, -7.5875, "berrechid");
+        put(33.8240, -6.0660, "khemisset");
+        put(29.6974, -9.7316, "tiznit");
+        put(30.4703, -8.8770, "taroudant");
+    }
+
+    private CityCoordinates() {
+    }
+
+    private static void put(double lat, double lon, String... names) {
+        double[] coordinates = {lat, lon};
+        int index = CANONICAL.size();
+        CANONICAL.add(names[0]);
+        for (String name : names) {
+            CITIES.put(name, coordinates);
+            INDEX.put(name, index);
+        }
+    }
+
+    /**
+     * Resolve a city name to {latitude, longitude}, or null if the city is unknown
+     */
+    public static double[] lookup(String city) {
+        if (city == null) {
+            return null;
+        }
+        return CITIES.get(normalize(city));
+    }
+
+    /**
+     * Stable index of a city (aliases share their city's index), or -1 if the city is unknown
+     */
+    public static int indexOf(String city) {
+        if (city == null) {
+            return -1;
+        }
+        Integer index = INDEX.get(normalize(city));
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Canonical city names; position in the list is the city's {@link #indexOf index}
+     */
+    public static List<String> canonicalNames() {
+        return Collections.unmodifiableList(CANONICAL);
+    }
+
+    /**
+     * All known city names (including aliases)
+     */
+    public static Map<String, double[]> all() {
+        return Collections.unmodifiableMap(CITIES);
+    }
+
+    /**
+     * Normalize a city name: lower case, accents stripped, "Casablanca, Morocco" reduced to "casablanca"
+     */
+    public static String normalize(String city) {
+        String name = city;
+        int comma = name.indexOf(',');
+        if (comma >= 0) {
+            name = name.substring(0, comma);
+        }
+        name = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return name.trim().replace('-', ' ').toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Great-circle distance in kilometers
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,236 @@
+package com.marocotransport.matching;
+
+import com.marocotransport.entity.Route;
+import com.marocotransport.repository.RouteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Precomputed road distance (km) and driving time (minutes) between every pair of known cities, held in a
+ * memory-mapped file.
+ *
+ * Only the upper triangle is stored, as two floats per pair (about 3.5 KB for the 30 cities in
+ * {@link CityCoordinates}), so a lookup is an index computation and one read. Pairs are seeded with the
+ * great-circle distance times a road detour factor and an average speed, then overwritten with the
+ * distance and estimated time of active {@link Route} rows. The file survives restarts: a matching file is
+ * used as-is at startup, and it is rebuilt from the routes once the application is ready and then on a
+ * schedule (or by calling {@link #refresh()} after changing routes).
+ *
+ * A rebuild never touches the mapping readers are using: it writes a new file next to the old one, maps it,
+ * moves it into place and swaps the volatile reference, so a lookup sees either the old or the new matrix.
+ */
+@Component
+public class CityDistanceMatrix {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityDistanceMatrix.class);
+
+    private static final int MAGIC = 0x43444d31; // "CDM1"
+    private static final int HEADER_BYTES = 16;
+    private static final int PAIR_BYTES = 8;
+
+    private final RouteRepository routeRepository;
+    private final Path path;
+    private final double detourFactor;
+    private final double averageSpeedKmh;
+
+    private final int cities = CityCoordinates.canonicalNames().size();
+    private volatile MappedByteBuffer matrix;
+
+    public CityDistanceMatrix(RouteRepository routeRepository,
+                              @Value("${matching.distance-matrix.path:data/city-distances.bin}") String path,
+                              @Value("${matching.distance-matrix.detour-factor:1.25}") double detourFactor,
+                              @Value("${matching.distance-matrix.average-speed-kmh:70}") double averageSpeedKmh) {
+        this.routeRepository = routeRepository;
+        this.path = Paths.get(path);
+        this.detourFactor = detourFactor;
+        this.averageSpeedKmh = averageSpeedKmh;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        if (Files.exists(path) && Files.size(path) == fileSize()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize());
+                if (existing.getInt(0) == MAGIC && existing.getInt(4) == cities
+                        && existing.getInt(8) == CityCoordinates.canonicalNames().hashCode()) {
+                    matrix = existing;
+                    return;
+                }
+            }
+        }
+        write(List.of());
+    }
+
+    /**
+     * Reload route distances from the database; call after routes were added, changed or removed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${matching.distance-matrix.refresh-interval-ms:600000}",
+            initialDelayString = "${matching.distance-matrix.refresh-interval-ms:600000}")
+    public void refresh() {
+        try {
+            int applied = write(routeRepository.findAllActive());
+            logger.info("City distance matrix: {} cities, {} pairs from routes", cities, applied);
+        } catch (IOException | RuntimeException ex) {
+            // Lookups keep using the current matrix
+            logger.warn("Could not refresh the city distance matrix from {}", path, ex);
+        }
+    }
+
+    /**
+     * Rebuild every pair (estimate, overridden by the shortest matching route) into a new file and swap it in;
+     * nothing is written if the result equals the current matrix
+     *
+     * @return number of pairs taken from routes
+     */
+    private synchronized int write(List<Route> routes) throws IOException {
+        List<String> names = CityCoordinates.canonicalNames();
+        float[] distances = new float[pairCount()];
+        float[] minutes = new float[pairCount()];
+        for (int i = 0; i < cities; i++) {
+            double[] a = CityCoordinates.lookup(names.get(i));
+            for (int j = i + 1; j < cities; j++) {
+                double[] b = CityCoordinates.lookup(names.get(j));
+                double distance = CityCoordinates.haversineKm(a[0], a[1], b[0], b[1]) * detourFactor;
+                int pair = pairIndex(i, j);
+                distances[pair] = (float) distance;
+                minutes[pair] = (float) (distance / averageSpeedKmh * 60.0);
+            }
+        }
+
+        boolean[] fromRoute = new boolean[pairCount()];
+        int applied = 0;
+        for (Route route : routes) {
+            int from = CityCoordinates.indexOf(route.getOrigin());
+            int to = CityCoordinates.indexOf(route.getDestination());
+            if (from < 0 || to < 0 || from == to || route.getDistance() == null) {
+                continue;
+            }
+            int pair = pairIndex(from, to);
+            float distance = route.getDistance().floatValue();
+            // Several routes between the same cities: keep the shortest
+            if (fromRoute[pair] && distances[pair] <= distance) {
+                continue;
+            }
+            distances[pair] = distance;
+            minutes[pair] = route.getEstimatedTime() != null
+                    ? route.getEstimatedTime().floatValue()
+                    : (float) (distance / averageSpeedKmh * 60.0);
+            if (!fromRoute[pair]) {
+                fromRoute[pair] = true;
+                applied++;
+            }
+        }
+
+        ByteBuffer contents = ByteBuffer.allocate((int) fileSize());
+        contents.putInt(0, MAGIC);
+        contents.putInt(4, cities);
+        contents.putInt(8, names.hashCode());
+        for (int pair = 0; pair < distances.length; pair++) {
+            int offset = HEADER_BYTES + pair * PAIR_BYTES;
+            contents.putFloat(offset, distances[pair]);
+            contents.putFloat(offset + 4, minutes[pair]);
+        }
+        MappedByteBuffer current = matrix;
+        if (current != null && current.duplicate().rewind().equals(contents)) {
+            return applied;
+        }
+
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), "city-distances", ".tmp");
+        try {
+            MappedByteBuffer rebuilt;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                while (contents.hasRemaining()) {
+                    channel.write(contents);
+                }
+                channel.force(true);
+                // Mapped before the move, so the mapping is of exactly the bytes just written
+                rebuilt = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize());
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            matrix = rebuilt;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return applied;
+    }
+
+    /**
+     * Ratio of road to straight-line distance, for estimating road distance from positions off the matrix
+     */
+    public double getDetourFactor() {
+        return detourFactor;
+    }
+
+    /**
+     * Matrix index of a city, for repeated lookups with {@link #distanceKm(int, int)}; -1 if unknown
+     */
+    public int indexOf(String city) {
+        return CityCoordinates.indexOf(city);
+    }
+
+    /**
+     * Road distance between two cities, or NaN if either is unknown
+     */
+    public double distanceKm(String from, String to) {
+        return distanceKm(indexOf(from), indexOf(to));
+    }
+
+    public double distanceKm(int from, int to) {
+        if (from < 0 || to < 0) {
+            return Double.NaN;
+        }
+        return from == to ? 0.0 : matrix.getFloat(offset(from, to));
+    }
+
+    /**
+     * Driving time between two cities in minutes, or NaN if either is unknown
+     */
+    public double etaMinutes(String from, String to) {
+        return etaMinutes(indexOf(from), indexOf(to));
+    }
+
+    public double etaMinutes(int from, int to) {
+        if (from < 0 || to < 0) {
+            return Double.NaN;
+        }
+        return from == to ? 0.0 : matrix.getFloat(offset(from, to) + 4);
+    }
+
+    private long fileSize() {
+        return HEADER_BYTES + (long) pairCount() * PAIR_BYTES;
+    }
+
+    private int pairCount() {
+        return cities * (cities - 1) / 2;
+    }
+
+    // Position of the (from, to) pair in the upper triangle, symmetric in its arguments
+    private int pairIndex(int from, int to) {
+        int i = Math.min(from, to);
+        int j = Math.max(from, to);
+        return i * (2 * cities - i - 1) / 2 + (j - i - 1);
+    }
+
+    private int offset(int from, int to) {
+        return HEADER_BYTES + pairIndex(from, to) * PAIR_BYTES;
+    }
+}
@@ -0,0 +1,116 @@
+package com.marocotransport.matching;
+
+import com.maroctransit.auth.dto.TruckCandidateDTO;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Column-oriented snapshot of a set of trucks: one primitive array per attribute so the scoring kernel can
+ * walk the fleet without touching DTOs
+ */
+public final class FleetColumns {
+
+    public static final byte FUEL_UNKNOWN = 0;
+    public static final byte FUEL_DIESEL = 1;
+    public static final byte FUEL_GASOLINE = 2;
+    public static final byte FUEL_HYBRID = 3;
+    public static final byte FUEL_ELECTRIC = 4;
+
+    final int size;
+    final long[] ids;
+    final double[] latitude;
+    final double[] longitude;
+    final float[] capacity;
+    final byte[] fuelType;
+    final boolean[] available;
+
+    // CityCoordinates index of the truck's city when its position is that city (no live GPS fix), else -1
+    final int[] city;
+
+    public FleetColumns(int size) {
+        this.size = size;
+        this.ids = new long[size];
+        this.latitude = new double[size];
+        this.longitude = new double[size];
+        this.capacity = new float[size];
+        this.fuelType = new byte[size];
+        this.available = new boolean[size];
+        this.city = new int[size];
+        Arrays.fill(city, -1);
+    }
+
+    /**
+     * Build columns from truck projections, preferring the live position held by the spatial index
+     */
+    public static FleetColumns of(List<TruckCandidateDTO> trucks, TruckSpatialIndex truckSpatialIndex) {
+        FleetColumns columns = new FleetColumns(trucks.size());
+        for (int j = 0; j < trucks.size(); j++) {
+            TruckCandidateDTO truck = trucks.get(j);
+            double[] cityPosition = CityCoordinates.lookup(truck.getLocation());
+            double[] position = truckSpatialIndex.positionOf(truck.getId());
+            if (position == null) {
+                position = cityPosition;
+            }
+            if (cityPosition != null && position[0] == cityPosition[0] && position[1] == cityPosition[1]) {
+                columns.setCity(j, CityCoordinates.indexOf(truck.getLocation()));
+            }
+            columns.set(j, truck.getId(),
+                    position != null ? position[0] : Double.NaN,
+                    position != null ? position[1] : Double.NaN,
+                    truck.getCapacity() != null ? truck.getCapacity().floatValue() : Float.MAX_VALUE,
+                    fuelCode(truck.getFuelType()),
+                    truck.isAvailable());
+        }
+        return columns;
+    }
+
+    public void set(int index, long id, double lat, double lon, float capacity, byte fuelType, boolean available) {
+        this.ids[index] = id;
+        this.latitude[index] = lat;
+        this.longitude[index] = lon;
+        this.capacity[index] = capacity;
+        this.fuelType[index] = fuelType;
+        this.available[index] = available;
+    }
+
+    public void setCity(int index, int cityIndex) {
+        this.city[index] = cityIndex;
+    }
+
+    public static byte fuelCode(String fuelType) {
+        if (fuelType == null) {
+            return FUEL_UNKNOWN;
+        }
+        switch (fuelType.toUpperCase(Locale.ROOT)) {
+            case "DIESEL":
+                return FUEL_DIESEL;
+            case "GASOLINE":
+            case "PETROL":
+                return FUEL_GASOLINE;
+            case "HYBRID":
+                return FUEL_HYBRID;
+            case "ELECTRIC":
+                return FUEL_ELECTRIC;
+            default:
+                return FUEL_UNKNOWN;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    public int cityAt(int index) {
+        return city[index];
+    }
+
+    public double[] positionAt(int index) {
+        return new double[] {latitude[index], longitude[index]};
+    }
+}
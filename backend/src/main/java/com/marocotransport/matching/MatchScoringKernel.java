@@ -0,0 +1,216 @@
+package com.marocotransport.matching;
+
+import com.marocotransport.matching.model.FeatureBatch;
+import com.marocotransport.matching.model.LinearScoringModel;
+import com.marocotransport.matching.model.ScoringModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Allocation-free scoring of one job against a column-oriented fleet.
+ *
+ * Features for every (job, truck) pair are computed into a thread-local column-major {@link FeatureBatch}
+ * and handed to the configured {@link ScoringModel} in one call; scores are written into a caller-supplied
+ * or thread-local {@code double[]}. Winners are picked with a bounded min-heap over primitive arrays, so
+ * callers only build result DTOs for the top K trucks. A score is in [0, 1] (higher is better) or
+ * {@link #INFEASIBLE} when the truck cannot take the job.
+ */
+@Component
+public class MatchScoringKernel {
+
+    public static final double INFEASIBLE = Double.NEGATIVE_INFINITY;
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Relative operating-cost efficiency, indexed by FleetColumns fuel code
+    private static final double[] FUEL_EFFICIENCY = {0.5, 0.6, 0.5, 0.8, 1.0};
+
+    private final ScoringModel model;
+
+    // Road distances between cities; null to always use straight-line distance
+    private final CityDistanceMatrix roadDistances;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public MatchScoringKernel() {
+        this(LinearScoringModel.defaultModel());
+    }
+
+    public MatchScoringKernel(ScoringModel model) {
+        this(model, null);
+    }
+
+    @Autowired
+    public MatchScoringKernel(ScoringModel model, CityDistanceMatrix roadDistances) {
+        this.model = model;
+        this.roadDistances = roadDistances;
+    }
+
+    /**
+     * Score every truck in the fleet for a job into {@code out[0 .. fleet.size())}
+     */
+    public void score(double jobLat, double jobLon, double jobWeight, double maxDistanceKm,
+                      FleetColumns fleet, double[] out) {
+        score(jobLat, jobLon, -1, jobWeight, maxDistanceKm, fleet, out);
+    }
+
+    /**
+     * Score every truck for a job whose origin is the city with the given {@link CityCoordinates#indexOf
+     * index}: trucks parked in a known city use the precomputed road distance, others (live GPS position or
+     * unknown city) the straight-line distance times the matrix's road detour factor, so both kinds of truck
+     * are ranked and cut off on the same road-distance scale
+     */
+    public void score(double jobLat, double jobLon, int jobCity, double jobWeight, double maxDistanceKm,
+                      FleetColumns fleet, double[] out) {
+        int n = fleet.size;
+        FeatureBatch features = scratch.get().features(n);
+        double[] distanceRatio = features.column(FeatureBatch.DISTANCE_RATIO);
+        double[] capacityFit = features.column(FeatureBatch.CAPACITY_FIT);
+        double[] fuelEfficiency = features.column(FeatureBatch.FUEL_EFFICIENCY);
+        double[] distanceKm = features.column(FeatureBatch.DISTANCE_KM);
+        double[] weight = features.column(FeatureBatch.JOB_WEIGHT);
+        double[] truckCapacity = features.column(FeatureBatch.TRUCK_CAPACITY);
+
+        // Equirectangular distance is within 1% of great-circle distance at national scale and avoids trig per truck
+        double cosLat = Math.cos(Math.toRadians(jobLat));
+        double kmPerDegree = Math.toRadians(1.0) * EARTH_RADIUS_KM;
+        double[] lat = fleet.latitude;
+        double[] lon = fleet.longitude;
+        float[] capacity = fleet.capacity;
+        byte[] fuel = fleet.fuelType;
+        int[] city = fleet.city;
+        boolean useRoads = roadDistances != null && jobCity >= 0;
+        double straightLineScale = useRoads ? roadDistances.getDetourFactor() : 1.0;
+        for (int j = 0; j < n; j++) {
+            double distance;
+            if (useRoads && city[j] >= 0) {
+                distance = roadDistances.distanceKm(jobCity, city[j]);
+            } else {
+                double dy = (lat[j] - jobLat) * kmPerDegree;
+                double dx = (lon[j] - jobLon) * kmPerDegree * cosLat;
+                distance = Math.sqrt(dx * dx + dy * dy) * straightLineScale;
+            }
+            distanceKm[j] = distance;
+            distanceRatio[j] = distance / maxDistanceKm;
+            capacityFit[j] = capacity[j] > 0f ? jobWeight / capacity[j] : 0.0;
+            fuelEfficiency[j] = FUEL_EFFICIENCY[fuel[j]];
+            weight[j] = jobWeight;
+            truckCapacity[j] = capacity[j];
+        }
+
+        model.scoreBatch(features, out);
+
+        boolean[] available = fleet.available;
+        for (int j = 0; j < n; j++) {
+            if (!available[j] || jobWeight > capacity[j] || !(distanceKm[j] <= maxDistanceKm)) {
+                out[j] = INFEASIBLE;
+            } else {
+                out[j] = Math.max(0.0, Math.min(1.0, out[j]));
+            }
+        }
+    }
+
+    public ScoringModel getModel() {
+        return model;
+    }
+
+    /**
+     * Indices of the best {@code k} trucks for a job, best first. Only the returned array is allocated.
+     */
+    public int[] rank(double jobLat, double jobLon, double jobWeight, double maxDistanceKm,
+                      FleetColumns fleet, int k) {
+        Scratch buffers = scratch.get();
+        double[] scores = buffers.scores(fleet.size);
+        score(jobLat, jobLon, jobWeight, maxDistanceKm, fleet, scores);
+        return topK(scores, fleet.size, k, buffers);
+    }
+
+    private int[] topK(double[] scores, int count, int k, Scratch buffers) {
+        int[] heap = buffers.heap(k);
+        int size = 0;
+        for (int j = 0; j < count; j++) {
+            double score = scores[j];
+            if (score == INFEASIBLE) {
+                continue;
+            }
+            if (size < k) {
+                heap[size] = j;
+                siftUp(heap, scores, size++);
+            } else if (k > 0 && score > scores[heap[0]]) {
+                heap[0] = j;
+                siftDown(heap, scores, size);
+            }
+        }
+        int[] winners = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            winners[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, scores, i);
+        }
+        return winners;
+    }
+
+    // Min-heap on score: the root is the weakest of the current top K
+    private static void siftUp(int[] heap, double[] scores, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[heap[parent]] <= scores[heap[index]]) {
+                break;
+            }
+            int tmp = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = tmp;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] scores, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && scores[heap[left]] < scores[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && scores[heap[right]] < scores[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            int tmp = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = tmp;
+            index = smallest;
+        }
+    }
+
+    /**
+     * Per-thread buffers reused across match requests; they only grow
+     */
+    private static final class Scratch {
+        private double[] scores = new double[0];
+        private int[] heap = new int[0];
+        private final FeatureBatch features = new FeatureBatch();
+
+        FeatureBatch features(int size) {
+            features.reset(size);
+            return features;
+        }
+
+        double[] scores(int size) {
+            if (scores.length < size) {
+                scores = new double[Math.max(size, scores.length * 2)];
+            }
+            return scores;
+        }
+
+        int[] heap(int size) {
+            if (heap.length < size) {
+                heap = new int[size];
+            }
+            return heap;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.marocotransport.matching;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.maroctransit.auth.dto.MatchingResultDTO;
+import com.maroctransit.auth.service.MatchingService;
+import com.marocotransport.entity.User;
+import com.marocotransport.security.TokenRevocationService;
+import com.marocotransport.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Precomputed per-user recommendations, so dashboard loads are a map lookup instead of a scoring run.
+ *
+ * The first request from a user computes their top-N synchronously and remembers the caller's principal and
+ * authorities. Lists are only ever recomputed when their owner reads them: a stale list is served once more
+ * while a background task recomputes it under the owner's identity, as long as that user is still active and
+ * their sessions have not been revoked; otherwise the list is dropped. Users who do not come back cost nothing.
+ *
+ * A list goes stale when a job or truck it shows is taken or removed (tracked per id, so only the users
+ * listing it are touched), when new or edited jobs (trucks) may have entered carriers' (shippers') lists
+ * (one generation counter per side, bumped in constant time), or when it is older than the maximum age,
+ * which is how truck movement is picked up instead of on every telemetry flush.
+ *
+ * Users who have not asked for recommendations within the active window are dropped. The store is written
+ * to disk periodically and on shutdown and reloaded at startup, so a restart does not start cold; reloaded
+ * lists are refreshed the next time their user shows up.
+ */
+@Component
+public class RecommendationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationStore.class);
+
+    private static final String ROLE_CARRIER = "ROLE_CARRIER";
+    private static final String ROLE_SHIPPER = "ROLE_SHIPPER";
+
+    private final MatchingService matchingService;
+    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    // Recommendations only read, so they can be served by a replica where one is configured
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int topN;
+    private final long maxAgeMillis;
+    private final Path snapshotPath;
+
+    private final Cache<String, Entry> entries;
+
+    // Bumped when jobs (trucks) may have entered any carrier's (shipper's) list
+    private final AtomicLong jobsGeneration = new AtomicLong();
+    private final AtomicLong trucksGeneration = new AtomicLong();
+    // Bumped on every per-id mark, so a list computed across one is not taken as fresh
+    private final AtomicLong removals = new AtomicLong();
+
+    // Users whose current list shows a job / truck; may briefly over-report, which only costs a refresh
+    private final Map<Long, Set<String>> listingJob = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> listingTruck = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor refresher = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1_000), runnable -> {
+                Thread thread = new Thread(runnable, "recommendation-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public RecommendationStore(MatchingService matchingService, UserService userService,
+                               TokenRevocationService tokenRevocationService, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${recommendations.top-n:20}") int topN,
+                               @Value("${recommendations.max-users:100000}") long maxUsers,
+                               @Value("${recommendations.active-window-hours:24}") long activeWindowHours,
+                               @Value("${recommendations.max-age-minutes:10}") long maxAgeMinutes,
+                               @Value("${recommendations.snapshot-path:data/recommendations.json}") String snapshotPath) {
+        this.matchingService = matchingService;
+        this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.topN = topN;
+        this.maxAgeMillis = TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofHours(activeWindowHours))
+                .executor(Runnable::run)
+                .<String, Entry>removalListener((username, entry, cause) -> {
+                    if (username != null && entry != null && cause != RemovalCause.REPLACED) {
+                        unindex(username, entry, null);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Top recommendations for the authenticated user
+     *
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public List<MatchingResultDTO> get(Authentication authentication, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        if (authentication == null || limit > topN) {
+            return readOnlyTransaction.execute(status -> matchingService.getRecommendations(limit));
+        }
+
+        String username = authentication.getName();
+        Entry entry = entries.getIfPresent(username);
+        if (entry == null) {
+            entry = compute(username, authentication.getPrincipal(), authentication.getAuthorities(),
+                    System.currentTimeMillis());
+        } else if (entry.principal == null) {
+            // Loaded from the snapshot: serve it now and recompute under this user's identity
+            Entry captured = new Entry(authentication.getPrincipal(), List.copyOf(authentication.getAuthorities()),
+                    roleOf(authentication.getAuthorities()), System.currentTimeMillis(), 0L, 0L, entry.items);
+            captured.stale = true;
+            entries.put(username, captured);
+            index(username, captured);
+            scheduleRefresh(username, captured);
+            entry = captured;
+        } else if (isStale(entry, System.currentTimeMillis())) {
+            scheduleRefresh(username, entry);
+        }
+        List<MatchingResultDTO> items = entry.items;
+        return items.size() <= limit ? items : items.subList(0, limit);
+    }
+
+    /**
+     * Jobs were created or edited: any carrier's recommendations (jobs for their trucks) may now differ
+     */
+    public void markJobsChanged() {
+        jobsGeneration.incrementAndGet();
+    }
+
+    /**
+     * Trucks were registered or edited: any shipper's recommendations (trucks for their jobs) may now differ
+     */
+    public void markTrucksChanged() {
+        trucksGeneration.incrementAndGet();
+    }
+
+    /**
+     * Jobs were assigned or deleted: only the lists showing them are stale
+     */
+    public void markJobsRemoved(Collection<Long> jobIds) {
+        markListing(listingJob, jobIds);
+    }
+
+    /**
+     * Trucks were assigned or deleted: only the lists showing them are stale
+     */
+    public void markTrucksRemoved(Collection<Long> truckIds) {
+        markListing(listingTruck, truckIds);
+    }
+
+    /**
+     * Drop a user's list and captured identity (e.g. on logout)
+     */
+    public void evict(String username) {
+        entries.invalidate(username);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.snapshot-interval-ms:300000}")
+    public void writeSnapshot() {
+        Map<String, List<MatchingResultDTO>> lists = new HashMap<>();
+        entries.asMap().forEach((username, entry) -> lists.put(username, entry.items));
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "recommendations", ".tmp");
+            objectMapper.writeValue(temp.toFile(), lists);
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.warn("Could not write recommendation snapshot to {}", snapshotPath, ex);
+        }
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try {
+            Map<String, List<MatchingResultDTO>> lists = objectMapper.readValue(snapshotPath.toFile(),
+                    new TypeReference<Map<String, List<MatchingResultDTO>>>() { });
+            // No identity yet: served once the user's next request has captured it
+            lists.forEach((username, items) ->
+                    entries.put(username, new Entry(null, List.of(), null, 0L, 0L, 0L, items)));
+            logger.info("Loaded recommendations for {} users from {}", lists.size(), snapshotPath);
+        } catch (IOException ex) {
+            logger.warn("Ignoring unreadable recommendation snapshot {}", snapshotPath, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        writeSnapshot();
+    }
+
+    private Entry compute(String username, Object principal, Collection<? extends GrantedAuthority> authorities,
+                          long authenticatedAt) {
+        String role = roleOf(authorities);
+        // Read before scoring, so a change during the run leaves the new list stale rather than lost
+        long generation = generationOf(role);
+        long removalsBefore = removals.get();
+        List<MatchingResultDTO> items = List.copyOf(
+                readOnlyTransaction.execute(status -> matchingService.getRecommendations(topN)));
+        Entry entry = new Entry(principal, List.copyOf(authorities), role, authenticatedAt,
+                System.currentTimeMillis(), generation, items);
+        Entry previous = entries.asMap().put(username, entry);
+        index(username, entry);
+        if (previous != null) {
+            unindex(username, previous, entry);
+        }
+        if (removals.get() != removalsBefore) {
+            entry.stale = true;
+        }
+        return entry;
+    }
+
+    private void scheduleRefresh(String username, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        // Only the principal and authorities are kept; credentials and request details are not
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                entry.principal, null, entry.authorities));
+        try {
+            refresher.execute(new DelegatingSecurityContextRunnable(() -> {
+                try {
+                    if (!stillAuthorized(username, entry)) {
+                        entries.invalidate(username);
+                        return;
+                    }
+                    compute(username, entry.principal, entry.authorities, entry.authenticatedAt);
+                } catch (RuntimeException ex) {
+                    logger.warn("Could not refresh recommendations for {}", username, ex);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            }, context));
+        } catch (RejectedExecutionException ex) {
+            // Retried on the user's next read
+            entry.refreshing.set(false);
+        }
+    }
+
+    // Checked against the primary: the captured identity outlives the request that proved it
+    private boolean stillAuthorized(String username, Entry entry) {
+        if (tokenRevocationService.isUserRevokedSince(username, entry.authenticatedAt)) {
+            return false;
+        }
+        return userService.getUserByEmail(username).map(User::isActive).orElse(false);
+    }
+
+    private boolean isStale(Entry entry, long now) {
+        return entry.stale
+                || now - entry.computedAt >= maxAgeMillis
+                || entry.generation < generationOf(entry.role);
+    }
+
+    private long generationOf(String role) {
+        if (ROLE_CARRIER.equals(role)) {
+            return jobsGeneration.get();
+        }
+        if (ROLE_SHIPPER.equals(role)) {
+            return trucksGeneration.get();
+        }
+        return 0L;
+    }
+
+    private void markListing(Map<Long, Set<String>> listing, Collection<Long> ids) {
+        removals.incrementAndGet();
+        for (Long id : ids) {
+            Set<String> usernames = listing.remove(id);
+            if (usernames == null) {
+                continue;
+            }
+            for (String username : usernames) {
+                Entry entry = entries.policy().getIfPresentQuietly(username);
+                if (entry != null) {
+                    entry.stale = true;
+                }
+            }
+        }
+    }
+
+    private void index(String username, Entry entry) {
+        for (MatchingResultDTO item : entry.items) {
+            addListing(listingJob, item.getJobId(), username);
+            addListing(listingTruck, item.getTruckId(), username);
+        }
+    }
+
+    // Drops the user from ids of a replaced or removed list that the current one no longer shows
+    private void unindex(String username, Entry old, Entry current) {
+        Set<Long> currentJobs = idsOf(current, MatchingResultDTO::getJobId);
+        Set<Long> currentTrucks = idsOf(current, MatchingResultDTO::getTruckId);
+        for (MatchingResultDTO item : old.items) {
+            if (!currentJobs.contains(item.getJobId())) {
+                removeListing(listingJob, item.getJobId(), username);
+            }
+            if (!currentTrucks.contains(item.getTruckId())) {
+                removeListing(listingTruck, item.getTruckId(), username);
+            }
+        }
+    }
+
+    private static Set<Long> idsOf(Entry entry, Function<MatchingResultDTO, Long> id) {
+        Set<Long> ids = new HashSet<>();
+        if (entry != null) {
+            for (MatchingResultDTO item : entry.items) {
+                ids.add(id.apply(item));
+            }
+        }
+        return ids;
+    }
+
+    private static void addListing(Map<Long, Set<String>> listing, Long id, String username) {
+        if (id != null) {
+            listing.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(username);
+        }
+    }
+
+    private static void removeListing(Map<Long, Set<String>> listing, Long id, String username) {
+        if (id != null) {
+            listing.computeIfPresent(id, (key, usernames) -> {
+                usernames.remove(username);
+                return usernames.isEmpty() ? null : usernames;
+            });
+        }
+    }
+
+    private static String roleOf(Collection<? extends GrantedAuthority> authorities) {
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (ROLE_CARRIER.equals(name) || ROLE_SHIPPER.equals(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One user's precomputed list, with what is needed to recompute it in the background
+     */
+    private static final class Entry {
+        private final Object principal;
+        private final List<GrantedAuthority> authorities;
+        private final String role;
+        // When the identity was captured from a request; sessions revoked since then end the refreshes
+        private final long authenticatedAt;
+        private final long computedAt;
+        // Jobs (carriers) or trucks (shippers) generation the list was computed against
+        private final long generation;
+        private final List<MatchingResultDTO> items;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile boolean stale;
+
+        Entry(Object principal, List<GrantedAuthority> authorities, String role, long authenticatedAt,
+              long computedAt, long generation, List<MatchingResultDTO> items) {
+            this.principal = principal;
+            this.authorities = authorities;
+            this.role = role;
+            this.authenticatedAt = authenticatedAt;
+            this.computedAt = computedAt;
+            this.generation = generation;
+            this.items = items;
+        }
+    }
+}
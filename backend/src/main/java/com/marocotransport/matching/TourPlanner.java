@@ -0,0 +1,374 @@
+package com.marocotransport.matching;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a multi-stop tour for one truck over a set of candidate jobs (pickup and delivery cities, weight).
+ *
+ * A tour is an open path from the truck's city; every served job is picked up before it is delivered and
+ * the load never exceeds the truck's capacity. Tours serving more jobs are better; among those, shorter
+ * is better. The planner starts from a greedy cheapest-insertion tour, then runs several ruin-and-recreate
+ * local searches, each with its own random seed, until the time budget runs out, and returns the best tour
+ * found by any of them.
+ *
+ * Searches run on a dedicated pool rather than the common ForkJoin pool, so planning cannot starve other
+ * parallel work. At most a configured number of plans run at once and the pool's threads are split
+ * between them; a plan requested beyond that limit is rejected with {@link TourPlannerBusyException}.
+ */
+@Component
+public class TourPlanner {
+
+    private static final double EPSILON = 1e-9;
+
+    private final CityDistanceMatrix roadDistances;
+    private final Semaphore runningPlans;
+    private final int searchesPerPlan;
+    private final ThreadPoolExecutor searchers;
+
+    public TourPlanner(CityDistanceMatrix roadDistances,
+                       @Value("${matching.tours.search-threads:4}") int searchThreads,
+                       @Value("${matching.tours.max-concurrent-plans:2}") int maxConcurrentPlans) {
+        this.roadDistances = roadDistances;
+        this.runningPlans = new Semaphore(maxConcurrentPlans);
+        this.searchesPerPlan = Math.max(1, searchThreads / maxConcurrentPlans);
+        // Sized so every running plan's searches fit: a search never waits behind another plan's
+        this.searchers = new ThreadPoolExecutor(searchThreads, searchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConcurrentPlans * searchesPerPlan), runnable -> {
+                    Thread thread = new Thread(runnable, "tour-search");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Plan a tour.
+     *
+     * @param startCity CityCoordinates index of the truck's city
+     * @param capacity truck capacity, in the same unit as the job weights
+     * @param pickupCity city index of each job's pickup
+     * @param deliveryCity city index of each job's delivery
+     * @param weight load of each job
+     * @param budgetMillis time allowed for the local search
+     * @throws TourPlannerBusyException if the maximum number of plans is already running
+     */
+    public Plan plan(int startCity, double capacity, int[] pickupCity, int[] deliveryCity, double[] weight,
+                     long budgetMillis) {
+        if (!runningPlans.tryAcquire()) {
+            throw new TourPlannerBusyException("Too many tours are being planned; try again shortly");
+        }
+        try {
+            return solve(startCity, capacity, pickupCity, deliveryCity, weight, budgetMillis);
+        } finally {
+            runningPlans.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searchers.shutdownNow();
+    }
+
+    private Plan solve(int startCity, double capacity, int[] pickupCity, int[] deliveryCity, double[] weight,
+                       long budgetMillis) {
+        int cities = CityCoordinates.canonicalNames().size();
+        double[][] distance = new double[cities][cities];
+        for (int a = 0; a < cities; a++) {
+            for (int b = 0; b < cities; b++) {
+                distance[a][b] = roadDistances.distanceKm(a, b);
+            }
+        }
+        Instance instance = new Instance(startCity, capacity, pickupCity, deliveryCity, weight, distance);
+
+        Tour initial = new Tour(instance);
+        for (int job = 0; job < instance.jobs; job++) {
+            initial.insertCheapest(job);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        int workers = instance.jobs < 2 ? 0 : searchesPerPlan;
+        List<CompletableFuture<Tour>> searches = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long seed = 31L * w + 17;
+            searches.add(CompletableFuture.supplyAsync(() -> search(initial, new Random(seed), deadline), searchers));
+        }
+
+        Tour best = initial;
+        for (CompletableFuture<Tour> search : searches) {
+            Tour found = search.join();
+            if (found.isBetterThan(best)) {
+                best = found;
+            }
+        }
+        return best.toPlan();
+    }
+
+    // Ruin and recreate: drop a few served jobs, reinsert them and the unserved ones in random order
+    private static Tour search(Tour initial, Random random, long deadline) {
+        Tour current = initial.copy();
+        Tour best = initial.copy();
+        long start = System.nanoTime();
+        int jobs = current.instance.jobs;
+        int[] order = new int[jobs];
+        while (System.nanoTime() < deadline) {
+            Tour candidate = current.copy();
+            int served = candidate.servedCount();
+            int ruin = served == 0 ? 0 : 1 + random.nextInt(Math.min(3, served));
+            for (int r = 0; r < ruin; r++) {
+                candidate.removeJob(candidate.randomServedJob(random));
+            }
+
+            int count = 0;
+            for (int job = 0; job < jobs; job++) {
+                if (!candidate.served[job]) {
+                    order[count++] = job;
+                }
+            }
+            for (int i = count - 1; i > 0; i--) {
+                int k = random.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[k];
+                order[k] = tmp;
+            }
+            for (int i = 0; i < count; i++) {
+                candidate.insertCheapest(order[i]);
+            }
+
+            // Threshold acceptance: early on, slightly longer tours are accepted to escape local minima
+            double progress = (double) (System.nanoTime() - start) / Math.max(1, deadline - start);
+            double threshold = 0.02 * Math.max(0.0, 1.0 - progress);
+            if (candidate.servedCount() > current.servedCount()
+                    || (candidate.servedCount() == current.servedCount()
+                        && candidate.length <= current.length * (1.0 + threshold))) {
+                current = candidate;
+                if (current.isBetterThan(best)) {
+                    best = current.copy();
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A planned tour: stops as node ids (2 * job for a pickup, 2 * job + 1 for its delivery)
+     */
+    public static final class Plan {
+        private final int[] stops;
+        private final double distanceKm;
+
+        Plan(int[] stops, double distanceKm) {
+            this.stops = stops;
+            this.distanceKm = distanceKm;
+        }
+
+        public int[] getStops() {
+            return stops;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+
+        public static int jobOf(int stop) {
+            return stop >> 1;
+        }
+
+        public static boolean isPickup(int stop) {
+            return (stop & 1) == 0;
+        }
+    }
+
+    private static final class Instance {
+        final int startCity;
+        final double capacity;
+        final int[] pickupCity;
+        final int[] deliveryCity;
+        final double[] weight;
+        final double[][] distance;
+        final int jobs;
+
+        Instance(int startCity, double capacity, int[] pickupCity, int[] deliveryCity, double[] weight,
+                 double[][] distance) {
+            this.startCity = startCity;
+            this.capacity = capacity;
+            this.pickupCity = pickupCity;
+            this.deliveryCity = deliveryCity;
+            this.weight = weight;
+            this.distance = distance;
+            this.jobs = weight.length;
+        }
+
+        int cityOf(int stop) {
+            return Plan.isPickup(stop) ? pickupCity[stop >> 1] : deliveryCity[stop >> 1];
+        }
+
+        double delta(int stop) {
+            return Plan.isPickup(stop) ? weight[stop >> 1] : -weight[stop >> 1];
+        }
+    }
+
+    private static final class Tour {
+        final Instance instance;
+        int[] stops;
+        int size;
+        final boolean[] served;
+        double length;
+
+        Tour(Instance instance) {
+            this.instance = instance;
+            this.stops = new int[2 * instance.jobs];
+            this.served = new boolean[instance.jobs];
+        }
+
+        Tour copy() {
+            Tour copy = new Tour(instance);
+            System.arraycopy(stops, 0, copy.stops, 0, size);
+            System.arraycopy(served, 0, copy.served, 0, served.length);
+            copy.size = size;
+            copy.length = length;
+            return copy;
+        }
+
+        int servedCount() {
+            return size / 2;
+        }
+
+        boolean isBetterThan(Tour other) {
+            return servedCount() > other.servedCount()
+                    || (servedCount() == other.servedCount() && length < other.length - EPSILON);
+        }
+
+        int randomServedJob(Random random) {
+            return Plan.jobOf(stops[random.nextInt(size)]);
+        }
+
+        private int cityAt(int position) {
+            return position < 0 ? instance.startCity : instance.cityOf(stops[position]);
+        }
+
+        private double edge(int fromCity, int toCity) {
+            return instance.distance[fromCity][toCity];
+        }
+
+        /**
+         * Insert a job's pickup and delivery where they add the least distance without exceeding capacity;
+         * leaves the tour unchanged if no feasible insertion exists
+         */
+        boolean insertCheapest(int job) {
+            double w = instance.weight[job];
+            if (w > instance.capacity + EPSILON) {
+                return false;
+            }
+            int pickupCity = instance.pickupCity[job];
+            int deliveryCity = instance.deliveryCity[job];
+
+            // load[k]: load carried after stop k
+            double[] load = new double[size];
+            double carried = 0.0;
+            for (int k = 0; k < size; k++) {
+                carried += instance.delta(stops[k]);
+                load[k] = carried;
+            }
+
+            double bestCost = Double.POSITIVE_INFINITY;
+            int bestPickup = -1;
+            int bestDelivery = -1;
+            for (int p = 0; p <= size; p++) {
+                double before = p == 0 ? 0.0 : load[p - 1];
+                if (before + w > instance.capacity + EPSILON) {
+                    continue;
+                }
+                int prevCity = cityAt(p - 1);
+                boolean hasNext = p < size;
+                double pickupCost = edge(prevCity, pickupCity)
+                        + (hasNext ? edge(pickupCity, cityAt(p)) - edge(prevCity, cityAt(p)) : 0.0);
+
+                // Delivery right after the pickup
+                double adjacent = edge(prevCity, pickupCity) + edge(pickupCity, deliveryCity)
+                        + (hasNext ? edge(deliveryCity, cityAt(p)) - edge(prevCity, cityAt(p)) : 0.0);
+                if (adjacent < bestCost) {
+                    bestCost = adjacent;
+                    bestPickup = p;
+                    bestDelivery = p;
+                }
+
+                // Delivery after original stop d - 1; stops p .. d - 1 carry the extra load
+                for (int d = p + 1; d <= size; d++) {
+                    if (load[d - 1] + w > instance.capacity + EPSILON) {
+                        break;
+                    }
+                    int lastCity = cityAt(d - 1);
+                    double deliveryCost = edge(lastCity, deliveryCity)
+                            + (d < size ? edge(deliveryCity, cityAt(d)) - edge(lastCity, cityAt(d)) : 0.0);
+                    double cost = pickupCost + deliveryCost;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestPickup = p;
+                        bestDelivery = d;
+                    }
+                }
+            }
+            if (bestPickup < 0) {
+                return false;
+            }
+
+            int[] next = new int[stops.length];
+            int n = 0;
+            for (int k = 0; k <= size; k++) {
+                if (k == bestPickup) {
+                    next[n++] = 2 * job;
+                }
+                if (k == bestDelivery) {
+                    next[n++] = 2 * job + 1;
+                }
+                if (k < size) {
+                    next[n++] = stops[k];
+                }
+            }
+            stops = next;
+            size = n;
+            served[job] = true;
+            length += bestCost;
+            return true;
+        }
+
+        void removeJob(int job) {
+            int n = 0;
+            for (int k = 0; k < size; k++) {
+                if (Plan.jobOf(stops[k]) != job) {
+                    stops[n++] = stops[k];
+                }
+            }
+            size = n;
+            served[job] = false;
+            length = recomputeLength();
+        }
+
+        private double recomputeLength() {
+            double total = 0.0;
+            int city = instance.startCity;
+            for (int k = 0; k < size; k++) {
+                int next = instance.cityOf(stops[k]);
+                total += edge(city, next);
+                city = next;
+            }
+            return total;
+        }
+
+        Plan toPlan() {
+            int[] plan = new int[size];
+            System.arraycopy(stops, 0, plan, 0, size);
+            return new Plan(plan, recomputeLength());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.marocotransport.matching;
+
+/**
+ * Thrown when the configured number of tour plans is already running; mapped to 503 Service Unavailable
+ */
+public class TourPlannerBusyException extends RuntimeException {
+
+    public TourPlannerBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,259 @@
+package com.marocotransport.matching;
+
+import com.maroctransit.auth.dto.TruckDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index of available trucks, used by matching to look only at trucks near a job's origin
+ * instead of scanning the whole fleet.
+ *
+ * The map is cut into square lat/lon cells (0.5 degree by default, roughly 55 km). Each available truck
+ * sits in exactly one cell; a radius query visits only the cells overlapping the search circle and then
+ * filters by exact great-circle distance.
+ *
+ * Latency targets for a 10k-truck fleet: p99 below 2 ms for a 150 km candidate query around a major hub
+ * (a few thousand trucks in range) and p99 below 50 microseconds per update, with no database access on
+ * either path.
+ */
+@Component
+public class TruckSpatialIndex {
+
+    private static final double KM_PER_DEGREE_LAT = 111.0;
+
+    private final double cellDegrees;
+
+    // truckId -> current position; only available trucks with a known location are indexed
+    private final Map<Long, Position> positions = new ConcurrentHashMap<>();
+
+    // cell key -> positions of the trucks in that cell
+    private final Map<Long, Map<Long, Position>> cells = new ConcurrentHashMap<>();
+
+    public TruckSpatialIndex(@Value("${matching.index.cell-degrees:0.5}") double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Index (or un-index) a truck from its current DTO state
+     */
+    public void update(TruckDTO truck) {
+        if (truck == null || truck.getId() == null) {
+            return;
+        }
+        double[] coordinates = CityCoordinates.lookup(truck.getLocation());
+        if (!Boolean.TRUE.equals(truck.isAvailable()) || coordinates == null) {
+            remove(truck.getId());
+            return;
+        }
+        update(truck.getId(), coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Place an available truck at the given coordinates, moving it between cells if needed
+     */
+    public void update(Long truckId, double latitude, double longitude) {
+        long cell = cellKey(latitude, longitude);
+        positions.compute(truckId, (id, previous) -> {
+            if (previous != null && previous.cell != cell) {
+                leaveCell(previous.cell, id);
+            }
+            Position position = new Position(latitude, longitude, cell);
+            enterCell(cell, id, position);
+            return position;
+        });
+    }
+
+    /**
+     * Move a truck that is already indexed; trucks that are not currently available are left out
+     *
+     * @return true if the truck was indexed and has been moved
+     */
+    public boolean move(Long truckId, double latitude, double longitude) {
+        long cell = cellKey(latitude, longitude);
+        return positions.computeIfPresent(truckId, (id, previous) -> {
+            if (previous.cell != cell) {
+                leaveCell(previous.cell, id);
+            }
+            Position position = new Position(latitude, longitude, cell);
+            enterCell(cell, id, position);
+            return position;
+        }) != null;
+    }
+
+    /**
+     * Drop a truck from the index (deleted or no longer available)
+     */
+    public void remove(Long truckId) {
+        positions.computeIfPresent(truckId, (id, previous) -> {
+            leaveCell(previous.cell, id);
+            return null;
+        });
+    }
+
+    /**
+     * Available trucks within radiusKm of a city, nearest first
+     */
+    public List<Long> findCandidates(String city, double radiusKm, int limit) {
+        double[] coordinates = CityCoordinates.lookup(city);
+        if (coordinates == null) {
+            return List.of();
+        }
+        return findCandidates(coordinates[0], coordinates[1], radiusKm, limit);
+    }
+
+    /**
+     * Available trucks within radiusKm of a point, nearest first
+     */
+    public List<Long> findCandidates(double latitude, double longitude, double radiusKm, int limit) {
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double lonSpan = radiusKm / (KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        int minRow = row(latitude - latSpan);
+        int maxRow = row(latitude + latSpan);
+        int minCol = col(longitude - lonSpan);
+        int maxCol = col(longitude + lonSpan);
+
+        // Bounded max-heap on distance keeps the `limit` nearest trucks without sorting every hit
+        int capacity = Math.max(0, limit);
+        long[] heapIds = new long[capacity];
+        double[] heapDistances = new double[capacity];
+        int size = 0;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                Map<Long, Position> members = cells.get(pack(r, c));
+                if (members == null) {
+                    continue;
+                }
+                for (Map.Entry<Long, Position> member : members.entrySet()) {
+                    Position position = member.getValue();
+                    double distance = CityCoordinates.haversineKm(
+                            latitude, longitude, position.latitude, position.longitude);
+                    if (distance > radiusKm) {
+                        continue;
+                    }
+                    if (size < capacity) {
+                        heapIds[size] = member.getKey();
+                        heapDistances[size] = distance;
+                        siftUp(heapIds, heapDistances, size++);
+                    } else if (capacity > 0 && distance < heapDistances[0]) {
+                        heapIds[0] = member.getKey();
+                        heapDistances[0] = distance;
+                        siftDown(heapIds, heapDistances, size);
+                    }
+                }
+            }
+        }
+
+        Long[] nearest = new Long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            nearest[i] = heapIds[0];
+            heapIds[0] = heapIds[i];
+            heapDistances[0] = heapDistances[i];
+            siftDown(heapIds, heapDistances, i);
+        }
+        return Arrays.asList(nearest);
+    }
+
+    /**
+     * Current {latitude, longitude} of an indexed truck, or null
+     */
+    public double[] positionOf(Long truckId) {
+        Position position = positions.get(truckId);
+        return position == null ? null : new double[] {position.latitude, position.longitude};
+    }
+
+    public boolean contains(Long truckId) {
+        return positions.containsKey(truckId);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    private void enterCell(long cell, Long truckId, Position position) {
+        cells.compute(cell, (key, members) -> {
+            Map<Long, Position> updated = members != null ? members : new ConcurrentHashMap<>();
+            updated.put(truckId, position);
+            return updated;
+        });
+    }
+
+    private void leaveCell(long cell, Long truckId) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(truckId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private static void siftUp(long[] ids, double[] distances, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (distances[parent] >= distances[index]) {
+                break;
+            }
+            swap(ids, distances, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] ids, double[] distances, int size) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && distances[left] > distances[largest]) {
+                largest = left;
+            }
+            if (right < size && distances[right] > distances[largest]) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(ids, distances, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void swap(long[] ids, double[] distances, int i, int j) {
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return pack(row(latitude), col(longitude));
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellDegrees);
+    }
+
+    private static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static final class Position {
+        final double latitude;
+        final double longitude;
+        final long cell;
+
+        Position(double latitude, double longitude, long cell) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+        }
+    }
+}
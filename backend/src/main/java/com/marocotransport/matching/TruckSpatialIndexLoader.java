@@ -0,0 +1,42 @@
+package com.marocotransport.matching;
+
+import com.maroctransit.auth.dto.TruckDTO;
+import com.maroctransit.auth.service.TruckService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the truck spatial index with the currently available fleet once the application has started
+ */
+@Component
+public class TruckSpatialIndexLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(TruckSpatialIndexLoader.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    private final TruckService truckService;
+    private final TruckSpatialIndex truckSpatialIndex;
+
+    public TruckSpatialIndexLoader(TruckService truckService, TruckSpatialIndex truckSpatialIndex) {
+        this.truckService = truckService;
+        this.truckSpatialIndex = truckSpatialIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAvailableTrucks() {
+        int page = 0;
+        List<TruckDTO> trucks;
+        do {
+            trucks = truckService.getAllTrucks(null, null, true, page++, PAGE_SIZE);
+            trucks.forEach(truckSpatialIndex::update);
+        } while (trucks.size() == PAGE_SIZE);
+
+        logger.info("Truck spatial index loaded with {} available trucks", truckSpatialIndex.size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.marocotransport.matching.model;
+
+/**
+ * Column-major feature matrix for a batch of job-truck pairs: {@code column(f)[i]} is feature {@code f} of
+ * pair {@code i}. Buffers are reused across batches and only grow.
+ */
+public final class FeatureBatch {
+
+    public static final int DISTANCE_RATIO = 0;
+    public static final int CAPACITY_FIT = 1;
+    public static final int FUEL_EFFICIENCY = 2;
+    public static final int DISTANCE_KM = 3;
+    public static final int JOB_WEIGHT = 4;
+    public static final int TRUCK_CAPACITY = 5;
+
+    public static final int FEATURE_COUNT = 6;
+
+    // Names used in model files, indexed by feature
+    private static final String[] NAMES = {
+            "distanceRatio", "capacityFit", "fuelEfficiency", "distanceKm", "jobWeight", "truckCapacity"
+    };
+
+    private final double[][] columns = new double[FEATURE_COUNT][0];
+    private int size;
+
+    /**
+     * Make room for {@code size} pairs; previous contents are not preserved
+     */
+    public void reset(int size) {
+        if (columns[0].length < size) {
+            int capacity = Math.max(size, columns[0].length * 2);
+            for (int f = 0; f < FEATURE_COUNT; f++) {
+                columns[f] = new double[capacity];
+            }
+        }
+        this.size = size;
+    }
+
+    public double[] column(int feature) {
+        return columns[feature];
+    }
+
+    // All columns, for models that pick a feature per pair
+    double[][] columns() {
+        return columns;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Feature index for a model-file name, or -1 if unknown
+     */
+    public static int indexOf(String name) {
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            if (NAMES[f].equals(name)) {
+                return f;
+            }
+        }
+        return -1;
+    }
+}
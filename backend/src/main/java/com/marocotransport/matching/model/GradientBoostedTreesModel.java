@@ -0,0 +1,87 @@
+package com.marocotransport.matching.model;
+
+/**
+ * Gradient-boosted regression trees, e.g. exported from XGBoost or LightGBM.
+ *
+ * All trees are flattened into shared primitive arrays: node {@code k} tests
+ * {@code feature[k] < threshold[k]} and continues at {@code left[k]} or {@code right[k]}; a node with
+ * {@code feature[k] < 0} is a leaf holding {@code value[k]}. {@code roots[t]} is the first node of tree
+ * {@code t}, whose nodes run up to the next tree's root (roots are ascending). The batch is scored tree
+ * by tree so each tree's nodes stay in cache while every pair walks it.
+ */
+public final class GradientBoostedTreesModel implements ScoringModel {
+
+    private final double baseScore;
+    private final double learningRate;
+    private final boolean sigmoid;
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final double[] value;
+    private final String source;
+
+    public GradientBoostedTreesModel(double baseScore, double learningRate, boolean sigmoid, int[] roots,
+                                     int[] feature, double[] threshold, int[] left, int[] right, double[] value,
+                                     String source) {
+        int nodes = feature.length;
+        if (threshold.length != nodes || left.length != nodes || right.length != nodes || value.length != nodes) {
+            throw new IllegalArgumentException("Node arrays must have the same length");
+        }
+        // Trees are stored one after another: tree t occupies nodes roots[t] until the next tree's root
+        for (int t = 0; t < roots.length; t++) {
+            int start = roots[t];
+            int end = t + 1 < roots.length ? roots[t + 1] : nodes;
+            if (start < 0 || start >= end || end > nodes) {
+                throw new IllegalArgumentException("Invalid root for tree " + t);
+            }
+            // Children must come after their parent and stay within its tree, which also rules out cycles
+            for (int k = start; k < end; k++) {
+                if (feature[k] >= FeatureBatch.FEATURE_COUNT
+                        || (feature[k] >= 0 && (left[k] <= k || left[k] >= end || right[k] <= k || right[k] >= end))) {
+                    throw new IllegalArgumentException("Invalid split at node " + k);
+                }
+            }
+        }
+        this.baseScore = baseScore;
+        this.learningRate = learningRate;
+        this.sigmoid = sigmoid;
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+        this.source = source;
+    }
+
+    @Override
+    public String describe() {
+        return "gbt, " + roots.length + " trees (" + source + ")";
+    }
+
+    @Override
+    public void scoreBatch(FeatureBatch batch, double[] out) {
+        int n = batch.size();
+        for (int i = 0; i < n; i++) {
+            out[i] = baseScore;
+        }
+        double[][] columns = batch.columns();
+        for (int root : roots) {
+            for (int i = 0; i < n; i++) {
+                int node = root;
+                int f;
+                while ((f = feature[node]) >= 0) {
+                    node = columns[f][i] < threshold[node] ? left[node] : right[node];
+                }
+                out[i] += learningRate * value[node];
+            }
+        }
+        if (sigmoid) {
+            for (int i = 0; i < n; i++) {
+                out[i] = 1.0 / (1.0 + Math.exp(-out[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.marocotransport.matching.model;
+
+/**
+ * {@code score = bias + sum(weight[f] * feature[f])}.
+ *
+ * Evaluated one feature column at a time over the whole batch: each pass is a straight multiply-add over
+ * two primitive arrays, which C2 compiles to SIMD instructions.
+ */
+public final class LinearScoringModel implements ScoringModel {
+
+    private final double bias;
+    private final double[] weights;
+    private final String source;
+
+    public LinearScoringModel(double bias, double[] weights, String source) {
+        if (weights.length != FeatureBatch.FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FeatureBatch.FEATURE_COUNT + " weights");
+        }
+        this.bias = bias;
+        this.weights = weights.clone();
+        this.source = source;
+    }
+
+    /**
+     * The built-in heuristic: 60% distance, 30% capacity fit, 10% fuel efficiency
+     */
+    public static LinearScoringModel defaultModel() {
+        double[] weights = new double[FeatureBatch.FEATURE_COUNT];
+        weights[FeatureBatch.DISTANCE_RATIO] = -0.6;
+        weights[FeatureBatch.CAPACITY_FIT] = 0.3;
+        weights[FeatureBatch.FUEL_EFFICIENCY] = 0.1;
+        return new LinearScoringModel(0.6, weights, "built-in");
+    }
+
+    @Override
+    public String describe() {
+        return "linear (" + source + ")";
+    }
+
+    @Override
+    public void scoreBatch(FeatureBatch batch, double[] out) {
+        int n = batch.size();
+        for (int i = 0; i < n; i++) {
+            out[i] = bias;
+        }
+        for (int f = 0; f < weights.length; f++) {
+            double weight = weights[f];
+            if (weight == 0.0) {
+                continue;
+            }
+            double[] column = batch.column(f);
+            for (int i = 0; i < n; i++) {
+                out[i] += weight * column[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.marocotransport.matching.model;
+
+/**
+ * Scores job-truck pairs from their features. Implementations must be thread-safe and should not allocate
+ * per call: the kernel calls {@link #scoreBatch} once per job over the whole candidate fleet.
+ */
+public interface ScoringModel {
+
+    /**
+     * Short description for logs (model type and source)
+     */
+    String describe();
+
+    /**
+     * Write the score of pairs {@code [0, batch.size())} into {@code out}; higher is better, and the kernel
+     * clamps results to [0, 1]
+     */
+    void scoreBatch(FeatureBatch batch, double[] out);
+}
@@ -0,0 +1,103 @@
+package com.marocotransport.matching.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads scoring models from JSON files.
+ *
+ * <pre>
+ * {"type": "linear", "bias": 0.6, "weights": {"distanceRatio": -0.6, "capacityFit": 0.3, "fuelEfficiency": 0.1}}
+ *
+ * {"type": "gbt", "baseScore": 0.0, "learningRate": 0.1, "objective": "logistic",
+ *  "trees": [{"nodes": [{"feature": "distanceRatio", "threshold": 0.4, "left": 1, "right": 2},
+ *                       {"leaf": 0.8}, {"leaf": -0.5}]}]}
+ * </pre>
+ *
+ * Feature names are those of {@link FeatureBatch}; tree child indices are relative to the tree.
+ */
+public final class ScoringModels {
+
+    private ScoringModels() {
+    }
+
+    public static ScoringModel load(Path path, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(path.toFile());
+        String type = root.path("type").asText();
+        String source = path.getFileName().toString();
+        switch (type) {
+            case "linear":
+                return linear(root, source);
+            case "gbt":
+                return gradientBoostedTrees(root, source);
+            default:
+                throw new IllegalArgumentException("Unknown scoring model type '" + type + "' in " + path);
+        }
+    }
+
+    private static LinearScoringModel linear(JsonNode root, String source) {
+        double[] weights = new double[FeatureBatch.FEATURE_COUNT];
+        Iterator<Map.Entry<String, JsonNode>> fields = root.path("weights").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            weights[feature(field.getKey())] = field.getValue().asDouble();
+        }
+        return new LinearScoringModel(root.path("bias").asDouble(0.0), weights, source);
+    }
+
+    private static GradientBoostedTreesModel gradientBoostedTrees(JsonNode root, String source) {
+        List<Integer> roots = new ArrayList<>();
+        List<Integer> feature = new ArrayList<>();
+        List<Double> threshold = new ArrayList<>();
+        List<Integer> left = new ArrayList<>();
+        List<Integer> right = new ArrayList<>();
+        List<Double> value = new ArrayList<>();
+
+        for (JsonNode tree : root.path("trees")) {
+            int offset = feature.size();
+            roots.add(offset);
+            for (JsonNode node : tree.path("nodes")) {
+                if (node.has("leaf")) {
+                    feature.add(-1);
+                    threshold.add(0.0);
+                    left.add(-1);
+                    right.add(-1);
+                    value.add(node.get("leaf").asDouble());
+                } else {
+                    feature.add(feature(node.path("feature").asText()));
+                    threshold.add(node.path("threshold").asDouble());
+                    left.add(offset + node.path("left").asInt());
+                    right.add(offset + node.path("right").asInt());
+                    value.add(0.0);
+                }
+            }
+        }
+
+        return new GradientBoostedTreesModel(
+                root.path("baseScore").asDouble(0.0),
+                root.path("learningRate").asDouble(1.0),
+                "logistic".equals(root.path("objective").asText()),
+                roots.stream().mapToInt(Integer::intValue).toArray(),
+                feature.stream().mapToInt(Integer::intValue).toArray(),
+                threshold.stream().mapToDouble(Double::doubleValue).toArray(),
+                left.stream().mapToInt(Integer::intValue).toArray(),
+                right.stream().mapToInt(Integer::intValue).toArray(),
+                value.stream().mapToDouble(Double::doubleValue).toArray(),
+                source);
+    }
+
+    private static int feature(String name) {
+        int index = FeatureBatch.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown feature '" + name + "'");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,295 @@
+package com.marocotransport.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.maroctransit.auth.dto.TruckAvailabilityEvent;
+import com.marocotransport.repository.TruckOwnershipRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent-event fan-out of truck availability and location deltas to dispatch dashboards.
+ *
+ * Each event is serialized to JSON once. A single background thread resolves the truck's owner and queues
+ * the same frame for every subscriber allowed to see it: administrators see the whole fleet, carriers only
+ * their own trucks. Each subscriber has a small bounded queue drained by a shared pool of sender threads,
+ * so request threads never wait on dashboards and one slow dashboard cannot hold up the others; a
+ * subscriber whose queue overflows is disconnected and resynchronises with a regular listing call when it
+ * reconnects. Position reports are coalesced per truck: while a truck's move is waiting for the fan-out, a
+ * newer position replaces it instead of queueing another event. If the fan-out itself falls behind, no
+ * event is dropped silently; every subscriber is disconnected so that all of them resynchronise.
+ */
+@Component
+public class TruckAvailabilityBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(TruckAvailabilityBroadcaster.class);
+
+    private static final String EVENT_NAME = "truck";
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final long subscriberTimeoutMillis;
+    private final int subscriberQueueSize;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Reserved before a subscriber is created, so concurrent subscribes cannot overshoot the limit
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Truck id -> owning carrier's username; resolved on the fan-out thread
+    private final LoadingCache<Long, Optional<String>> owners;
+
+    // Truck id -> latest position not yet fanned out; at most one fan-out task per truck is queued for these
+    private final Map<Long, TruckAvailabilityEvent> pendingMoves = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor fanOut = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(10_000), runnable -> daemon(runnable, "truck-sse-fanout"),
+            (rejected, executor) -> resyncAll(executor));
+
+    private final ExecutorService senders;
+
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "truck-sse-heartbeat"));
+
+    public TruckAvailabilityBroadcaster(ObjectMapper objectMapper,
+                                        TruckOwnershipRepository truckOwnershipRepository,
+                                        @Value("${realtime.trucks.max-subscribers:5000}") int maxSubscribers,
+                                        @Value("${realtime.trucks.timeout-minutes:30}") long timeoutMinutes,
+                                        @Value("${realtime.trucks.heartbeat-seconds:25}") long heartbeatSeconds,
+                                        @Value("${realtime.trucks.subscriber-queue-size:256}") int subscriberQueueSize,
+                                        @Value("${realtime.trucks.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberTimeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build(truckOwnershipRepository::findOwner);
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> daemon(runnable, "truck-sse-sender"));
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Register a new dashboard connection, or return null when the subscriber limit is reached
+     *
+     * @param username carrier whose trucks are streamed, or null to stream the whole fleet
+     */
+    public SseEmitter subscribe(String username) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(subscriberTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, username, subscriberQueueSize);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Queue a delta for every subscriber allowed to see the truck; returns immediately
+     */
+    public void publish(TruckAvailabilityEvent event) {
+        publish(event, null);
+    }
+
+    /**
+     * Queue a delta whose owner is already known (e.g. for a truck that has just been deleted)
+     */
+    public void publish(TruckAvailabilityEvent event, String owner) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Long truckId = event.getTruckId();
+        if (TruckAvailabilityEvent.MOVED.equals(event.getType()) && truckId != null) {
+            if (pendingMoves.put(truckId, event) == null) {
+                fanOut.execute(() -> broadcastMove(truckId, owner));
+            }
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = frame(event);
+        if (frame != null) {
+            fanOut.execute(() -> broadcast(truckId, owner, frame));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void sendHeartbeat() {
+        if (!subscribers.isEmpty()) {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("keep-alive").build();
+            fanOut.execute(() -> subscribers.forEach(subscriber -> enqueue(subscriber, frame)));
+        }
+    }
+
+    // Sends the truck's latest position; later reports land in a new task once this one has taken it
+    private void broadcastMove(Long truckId, String knownOwner) {
+        TruckAvailabilityEvent latest = pendingMoves.remove(truckId);
+        if (latest == null) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = frame(latest);
+        if (frame != null) {
+            broadcast(truckId, knownOwner, frame);
+        }
+    }
+
+    // Built once per event: the same frame is written to every subscriber
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(TruckAvailabilityEvent event) {
+        try {
+            return SseEmitter.event().name(EVENT_NAME).data(objectMapper.writeValueAsString(event)).build();
+        } catch (JsonProcessingException ex) {
+            logger.error("Could not serialize truck availability event", ex);
+            return null;
+        }
+    }
+
+    // The fan-out queue is full: rather than leave every dashboard one delta short without knowing it,
+    // disconnect them all so they resynchronise, and drop what they would have been sent
+    private void resyncAll(ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        logger.warn("Truck event fan-out fell behind; disconnecting {} dashboards to resynchronise",
+                subscribers.size());
+        executor.getQueue().clear();
+        pendingMoves.clear();
+        for (Subscriber subscriber : subscribers) {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void broadcast(Long truckId, String knownOwner, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        String owner = knownOwner;
+        boolean resolved = knownOwner != null;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.username != null) {
+                if (!resolved) {
+                    owner = resolveOwner(truckId);
+                    resolved = true;
+                }
+                if (!subscriber.username.equals(owner)) {
+                    continue;
+                }
+            }
+            enqueue(subscriber, frame);
+        }
+    }
+
+    private String resolveOwner(Long truckId) {
+        try {
+            return owners.get(truckId).orElse(null);
+        } catch (RuntimeException ex) {
+            // Without an owner the event only reaches administrators
+            logger.warn("Could not resolve the owner of truck {}", truckId, ex);
+            return null;
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (!subscriber.pending.offer(frame)) {
+            // Too far behind to catch up; the dashboard resynchronises when it reconnects
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException ex) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    // At most one sender drains a subscriber's queue at a time, so its frames stay in order
+    private void send(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while ((frame = subscriber.pending.poll()) != null) {
+                subscriber.emitter.send(frame);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away; the completion callback may not fire for a broken connection
+            remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        // A frame queued after the last poll but before the flag was cleared still needs a sender
+        if (!subscriber.pending.isEmpty() && subscriber.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException ex) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        fanOut.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * One dashboard connection and the frames waiting to be written to it
+     */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final String username;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending;
+        final AtomicBoolean sending = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, String username, int queueSize) {
+            this.emitter = emitter;
+            this.username = username;
+            this.pending = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.marocotransport.repository;
+
+import com.maroctransit.auth.dto.JobImportRowDTO;
+import com.maroctransit.auth.dto.TruckImportRowDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * JDBC batch inserts of imported jobs and trucks with pre-allocated ids (see {@link SequenceIdAllocator}),
+ * so a chunk of rows is written as a single batch instead of one statement and key lookup per row
+ */
+@Repository
+public class BulkInsertRepository {
+
+    private static final String INSERT_JOB =
+            "INSERT INTO jobs (id, origin, destination, weight, status, shipper_id, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRUCK =
+            "INSERT INTO trucks (id, type, location, capacity, fuel_type, available, carrier_id, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Imported jobs are new: a status column in the upload is ignored
+    private static final String IMPORTED_JOB_STATUS = "OPEN";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkInsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertJobs(List<JobImportRowDTO> jobs, long[] ids, long shipperId) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(jobs.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            JobImportRowDTO job = jobs.get(i);
+            rows.add(new Object[]{ids[i], job.getOrigin().trim(), job.getDestination().trim(), job.getWeight(),
+                    IMPORTED_JOB_STATUS, shipperId, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_JOB, rows);
+    }
+
+    public void insertTrucks(List<TruckImportRowDTO> trucks, long[] ids, long carrierId) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(trucks.size());
+        for (int i = 0; i < trucks.size(); i++) {
+            TruckImportRowDTO truck = trucks.get(i);
+            String fuelType = truck.getFuelType() != null ? truck.getFuelType().toUpperCase(Locale.ROOT) : null;
+            boolean available = truck.getAvailable() == null || truck.getAvailable();
+            rows.add(new Object[]{ids[i], truck.getType().trim(), truck.getLocation().trim(), truck.getCapacity(),
+                    fuelType, available, carrierId, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRUCK, rows);
+    }
+}
@@ -0,0 +1,12 @@
+package com.marocotransport.repository;
+
+/**
+ * Thrown when ids cannot be reserved from a sequence (e.g. migrations have not run); mapped to
+ * 503 Service Unavailable
+ */
+public class IdAllocationException extends RuntimeException {
+
+    public IdAllocationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
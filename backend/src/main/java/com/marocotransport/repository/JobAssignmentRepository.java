@@ -0,0 +1,213 @@
+package com.marocotransport.repository;
+
+import com.maroctransit.auth.dto.BatchAssignmentDTO;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch assignments and the carrier's decision on each (table from the V6__job_assignments.sql migration).
+ * Decisions are recorded with a conditional update, so each assignment is decided at most once even when
+ * requests race. An accepted assignment is final: later batches never move the job to another truck. A
+ * declined one is replaced by the next batch that places the job, which opens a new decision.
+ *
+ * Concurrent batches are serialized on the rows of the jobs and trucks they assign, and a truck that another
+ * job took since the batch loaded its candidates is not assigned twice.
+ */
+@Repository
+public class JobAssignmentRepository {
+
+    /**
+     * Outcome of recording a decision
+     */
+    public enum Decision {
+        RECORDED, ALREADY_DECIDED, NOT_FOUND
+    }
+
+    /**
+     * What storing a batch assignment did to the job's row
+     */
+    public enum Saved {
+        CREATED, REASSIGNED, UNCHANGED, ALREADY_ACCEPTED, TRUCK_TAKEN;
+
+        /**
+         * True if the job is now assigned to a different truck than before
+         */
+        public boolean isNew() {
+            return this == CREATED || this == REASSIGNED;
+        }
+
+        /**
+         * True if the job holds the assignment the batch asked for
+         */
+        public boolean isStored() {
+            return isNew() || this == UNCHANGED;
+        }
+    }
+
+    // Taken in id order, jobs before trucks, so two batches sharing rows wait for each other instead of
+    // deadlocking; the job lock also covers jobs that have no assignment row to lock yet
+    private static final String LOCK_JOBS = "SELECT id FROM jobs WHERE id IN (:jobIds) ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_TRUCKS =
+            "SELECT id FROM trucks WHERE id IN (:truckIds) ORDER BY id FOR UPDATE";
+
+    // Trucks still held by a job outside the batch
+    private static final String SELECT_HELD_TRUCKS =
+            "SELECT a.truck_id FROM job_assignments a JOIN jobs h ON h.id = a.job_id "
+                    + "WHERE a.truck_id IN (:truckIds) AND a.job_id NOT IN (:jobIds) AND "
+                    + MatchingCandidateRepository.HOLDS_TRUCK;
+
+    // Locks the existing rows, so a decision cannot land between the check and the update
+    private static final String SELECT_CURRENT =
+            "SELECT job_id, truck_id, accepted, decided_at FROM job_assignments WHERE job_id IN (:jobIds) "
+                    + "FOR UPDATE";
+
+    private static final String INSERT_ASSIGNMENT =
+            "INSERT INTO job_assignments (job_id, truck_id, distance_km, score, assigned_at) "
+                    + "VALUES (:jobId, :truckId, :distanceKm, :score, :assignedAt)";
+
+    // Replaces an undecided or declined assignment and clears the decline
+    private static final String REASSIGN =
+            "UPDATE job_assignments SET truck_id = :truckId, distance_km = :distanceKm, score = :score, "
+                    + "assigned_at = :assignedAt, accepted = NULL, decided_at = NULL "
+                    + "WHERE job_id = :jobId AND (decided_at IS NULL OR accepted = FALSE)";
+
+    private static final String RELEASE =
+            "DELETE FROM job_assignments WHERE job_id IN (:jobIds) AND decided_at IS NULL";
+
+    private static final String OWNED_TRUCKS =
+            "SELECT t.id FROM trucks t JOIN users u ON u.id = t.carrier_id WHERE u.email = :username";
+
+    private static final String DECIDE =
+            "UPDATE job_assignments SET accepted = :accepted, decided_at = :decidedAt "
+                    + "WHERE job_id = :jobId AND decided_at IS NULL AND truck_id IN (" + OWNED_TRUCKS + ")";
+
+    private static final String COUNT_OWNED =
+            "SELECT COUNT(*) FROM job_assignments WHERE job_id = :jobId AND truck_id IN (" + OWNED_TRUCKS + ")";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JobAssignmentRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Store new assignments. An undecided or declined earlier assignment of the same job is replaced (a
+     * declined one even when the truck is the same, as the offer is new); an accepted one is kept as it is
+     * and reported as {@link Saved#ALREADY_ACCEPTED}. A job whose truck is now held by another job is
+     * reported as {@link Saved#TRUCK_TAKEN} and loses its undecided earlier assignment, whose truck the batch
+     * may have given to another of its jobs.
+     *
+     * @return what happened to each job's row, by job id
+     */
+    @Transactional
+    public Map<Long, Saved> saveAll(List<BatchAssignmentDTO> assignments) {
+        Map<Long, Saved> saved = new LinkedHashMap<>();
+        if (assignments.isEmpty()) {
+            return saved;
+        }
+        List<Long> jobIds = new ArrayList<>(assignments.size());
+        List<Long> truckIds = new ArrayList<>(assignments.size());
+        for (BatchAssignmentDTO assignment : assignments) {
+            jobIds.add(assignment.getJobId());
+            truckIds.add(assignment.getTruckId());
+        }
+        MapSqlParameterSource ids = new MapSqlParameterSource()
+                .addValue("jobIds", jobIds)
+                .addValue("truckIds", truckIds);
+        jdbcTemplate.queryForList(LOCK_JOBS, ids, Long.class);
+        jdbcTemplate.queryForList(LOCK_TRUCKS, ids, Long.class);
+
+        Map<Long, Long> currentTruck = new HashMap<>();
+        Set<Long> accepted = new HashSet<>();
+        Set<Long> declined = new HashSet<>();
+        jdbcTemplate.query(SELECT_CURRENT, ids, rs -> {
+            long jobId = rs.getLong("job_id");
+            currentTruck.put(jobId, rs.getLong("truck_id"));
+            if (rs.getTimestamp("decided_at") != null) {
+                (rs.getBoolean("accepted") ? accepted : declined).add(jobId);
+            }
+        });
+        // Rows of this batch's jobs are replaced, except accepted ones, which keep their truck
+        Set<Long> heldTrucks = new HashSet<>(jdbcTemplate.queryForList(SELECT_HELD_TRUCKS, ids, Long.class));
+        for (Long jobId : accepted) {
+            heldTrucks.add(currentTruck.get(jobId));
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        List<SqlParameterSource> updates = new ArrayList<>();
+        List<Long> released = new ArrayList<>();
+        for (BatchAssignmentDTO assignment : assignments) {
+            Long jobId = assignment.getJobId();
+            Long truckId = currentTruck.get(jobId);
+            if (accepted.contains(jobId)) {
+                saved.put(jobId, Saved.ALREADY_ACCEPTED);
+                continue;
+            }
+            if (heldTrucks.contains(assignment.getTruckId())) {
+                saved.put(jobId, Saved.TRUCK_TAKEN);
+                if (truckId != null && !declined.contains(jobId)) {
+                    released.add(jobId);
+                }
+                continue;
+            }
+            if (truckId != null && truckId.equals(assignment.getTruckId()) && !declined.contains(jobId)) {
+                saved.put(jobId, Saved.UNCHANGED);
+                continue;
+            }
+            SqlParameterSource row = new MapSqlParameterSource()
+                    .addValue("jobId", jobId)
+                    .addValue("truckId", assignment.getTruckId())
+                    .addValue("distanceKm", assignment.getDistanceKm())
+                    .addValue("score", assignment.getScore())
+                    .addValue("assignedAt", now);
+            if (truckId == null) {
+                inserts.add(row);
+                saved.put(jobId, Saved.CREATED);
+            } else {
+                updates.add(row);
+                saved.put(jobId, Saved.REASSIGNED);
+            }
+        }
+        if (!released.isEmpty()) {
+            jdbcTemplate.update(RELEASE, new MapSqlParameterSource("jobIds", released));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(REASSIGN, updates.toArray(new SqlParameterSource[0]));
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT, inserts.toArray(new SqlParameterSource[0]));
+        }
+        return saved;
+    }
+
+    /**
+     * Record the decision of the carrier owning the assigned truck, unless one was already recorded
+     */
+    @Transactional
+    public Decision recordDecision(Long jobId, String username, boolean accepted) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("username", username)
+                .addValue("accepted", accepted)
+                .addValue("decidedAt", new Timestamp(System.currentTimeMillis()));
+        if (jdbcTemplate.update(DECIDE, params) == 1) {
+            return Decision.RECORDED;
+        }
+        Long owned = jdbcTemplate.queryForObject(COUNT_OWNED, params, Long.class);
+        return owned != null && owned > 0 ? Decision.ALREADY_DECIDED : Decision.NOT_FOUND;
+    }
+}
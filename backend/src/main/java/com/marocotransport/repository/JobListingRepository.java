@@ -0,0 +1,61 @@
+package com.marocotransport.repository;
+
+import com.maroctransit.auth.dto.CursorPage;
+import com.maroctransit.auth.dto.JobSummaryDTO;
+import com.marocotransport.util.KeysetCursor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated job listing that reads only the listed columns.
+ * Every filter combination is backed by a composite index (V1__listing_indexes.sql and
+ * V7__listing_filter_indexes.sql migrations).
+ */
+@Repository
+public class JobListingRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JobListingRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<JobSummaryDTO> findPage(String status, String origin, String destination,
+                                              KeysetCursor after, int size) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, origin, destination, status, created_at FROM jobs WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (status != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", status);
+        }
+        if (origin != null) {
+            sql.append(" AND origin = :origin");
+            params.addValue("origin", origin);
+        }
+        if (destination != null) {
+            sql.append(" AND destination = :destination");
+            params.addValue("destination", destination);
+        }
+        if (after != null) {
+            sql.append(" AND (created_at, id) < (:createdAt, :id)");
+            params.addValue("createdAt", after.getCreatedAtTimestamp());
+            params.addValue("id", after.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+        params.addValue("limit", size + 1);
+
+        List<JobSummaryDTO> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new JobSummaryDTO(
+                rs.getLong("id"),
+                rs.getString("origin"),
+                rs.getString("destination"),
+                rs.getString("status"),
+                rs.getTimestamp("created_at").toLocalDateTime()));
+        return KeysetCursor.page(rows, size, job -> new KeysetCursor(job.getCreatedAt(), job.getId()));
+    }
+}
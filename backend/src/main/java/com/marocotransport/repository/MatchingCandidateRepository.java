@@ -0,0 +1,126 @@
+package com.marocotransport.repository;
+
+import com.maroctransit.auth.dto.JobCandidateDTO;
+import com.maroctransit.auth.dto.TruckCandidateDTO;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Loads the jobs and trucks of a matching request by id, reading only the columns the solvers need.
+ * Ids are looked up with IN queries of bounded size instead of one query per id; results keep the order of
+ * the requested ids and unknown ids are left out.
+ *
+ * Only open jobs are returned: status OPEN and no accepted assignment in job_assignments (a declined job is
+ * matched again). Trucks already holding an assignment (undecided, or accepted for a job that is not closed)
+ * are left out unless that assignment is for one of the jobs being matched, which the new run replaces.
+ */
+@Repository
+public class MatchingCandidateRepository {
+
+    public static final int MAX_IDS_PER_QUERY = 1000;
+
+    public static final String OPEN_JOB_STATUS = "OPEN";
+
+    private static final String OPEN_JOB =
+            "j.status = '" + OPEN_JOB_STATUS + "' AND NOT EXISTS (SELECT 1 FROM job_assignments a "
+                    + "WHERE a.job_id = j.id AND a.accepted = TRUE)";
+
+    private static final String SELECT_JOBS =
+            "SELECT j.id, j.origin, j.destination, j.weight FROM jobs j WHERE j.id IN (:ids) AND " + OPEN_JOB;
+
+    private static final String SELECT_OWNED_JOBS =
+            "SELECT j.id, j.origin, j.destination, j.weight FROM jobs j JOIN users u ON u.id = j.shipper_id "
+                    + "WHERE u.email = :username AND j.id IN (:ids) AND " + OPEN_JOB;
+
+    // Assignment a of job h still holds its truck: undecided, or accepted for a job that is not closed
+    static final String HOLDS_TRUCK =
+            "(a.decided_at IS NULL OR (a.accepted = TRUE AND h.status NOT IN ('COMPLETED', 'DELIVERED', 'CANCELLED')))";
+
+    private static final String HELD_TRUCK =
+            "SELECT 1 FROM job_assignments a JOIN jobs h ON h.id = a.job_id WHERE a.truck_id = t.id AND "
+                    + HOLDS_TRUCK;
+
+    private static final String SELECT_TRUCKS =
+            "SELECT t.id, t.location, t.capacity, t.fuel_type, t.available FROM trucks t "
+                    + "WHERE t.id IN (:ids) AND NOT EXISTS (" + HELD_TRUCK + ")";
+
+    private static final String SELECT_TRUCKS_FOR_JOBS =
+            "SELECT t.id, t.location, t.capacity, t.fuel_type, t.available FROM trucks t "
+                    + "WHERE t.id IN (:ids) AND NOT EXISTS (" + HELD_TRUCK + " AND a.job_id NOT IN (:jobIds))";
+
+    private static final RowMapper<JobCandidateDTO> JOB_MAPPER = (rs, rowNum) -> new JobCandidateDTO(
+            rs.getLong("id"),
+            rs.getString("origin"),
+            rs.getString("destination"),
+            rs.getObject("weight") != null ? rs.getDouble("weight") : null);
+
+    private static final RowMapper<TruckCandidateDTO> TRUCK_MAPPER = (rs, rowNum) -> new TruckCandidateDTO(
+            rs.getLong("id"),
+            rs.getString("location"),
+            rs.getObject("capacity") != null ? rs.getDouble("capacity") : null,
+            rs.getString("fuel_type"),
+            rs.getBoolean("available"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MatchingCandidateRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Open jobs with the given ids
+     *
+     * @param shipperUsername when not null, only jobs posted by this shipper (email) are returned
+     */
+    public List<JobCandidateDTO> findJobs(Collection<Long> jobIds, String shipperUsername) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (shipperUsername != null) {
+            params.addValue("username", shipperUsername);
+        }
+        return select(shipperUsername != null ? SELECT_OWNED_JOBS : SELECT_JOBS, params, jobIds, JOB_MAPPER,
+                JobCandidateDTO::getId);
+    }
+
+    /**
+     * Trucks with the given ids, available or not, that are free to take one of the given jobs: trucks
+     * holding an assignment of any other job are left out
+     */
+    public List<TruckCandidateDTO> findTrucks(Collection<Long> truckIds, Collection<Long> forJobIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (forJobIds.isEmpty()) {
+            return select(SELECT_TRUCKS, params, truckIds, TRUCK_MAPPER, TruckCandidateDTO::getId);
+        }
+        params.addValue("jobIds", new ArrayList<>(forJobIds));
+        return select(SELECT_TRUCKS_FOR_JOBS, params, truckIds, TRUCK_MAPPER, TruckCandidateDTO::getId);
+    }
+
+    private <T> List<T> select(String sql, MapSqlParameterSource params, Collection<Long> ids,
+                               RowMapper<T> mapper, Function<T, Long> idOf) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, T> found = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IDS_PER_QUERY) {
+            params.addValue("ids", distinct.subList(from, Math.min(distinct.size(), from + MAX_IDS_PER_QUERY)));
+            for (T row : jdbcTemplate.query(sql, params, mapper)) {
+                found.put(idOf.apply(row), row);
+            }
+        }
+        List<T> ordered = new ArrayList<>(found.size());
+        for (Long id : distinct) {
+            T row = found.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,19 @@
+package com.marocotransport.repository;
+
+import com.marocotransport.config.SecondLevelCacheConfig;
+import com.marocotransport.entity.Route;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface RouteRepository extends JpaRepository<Route, Long> {
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = SecondLevelCacheConfig.ROUTE_LOOKUPS)
+    })
+    @Query("select r from Route r where r.isActive = true")
+    List<Route> findAllActive();
+}
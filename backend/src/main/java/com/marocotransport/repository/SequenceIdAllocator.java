@@ -0,0 +1,108 @@
+package com.marocotransport.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Hands out ids from database sequences in blocks, so a batch of N rows costs one sequence call per block
+ * instead of one round trip per row.
+ *
+ * Blocks use pooled-lo semantics: each sequence value is the first id of a block of ids.sequence-increment
+ * ids, which must equal the sequence's INCREMENT BY (V3__bulk_import_sequences.sql). Sequences start past
+ * existing ids (V5__align_id_sequences.sql). Unused ids left in a block when the application stops are
+ * simply skipped.
+ */
+@Component
+public class SequenceIdAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceIdAllocator.class);
+
+    public static final String JOBS_SEQUENCE = "jobs_seq";
+    public static final String TRUCKS_SEQUENCE = "trucks_seq";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final int increment;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public SequenceIdAllocator(DataSource dataSource,
+                               @Value("${ids.sequence-increment:50}") int increment) {
+        this.dataSource = dataSource;
+        this.increment = increment;
+    }
+
+    /**
+     * Reserve count ids from a sequence (consecutive within a block)
+     *
+     * @throws IdAllocationException if the sequence cannot be read, e.g. because it does not exist
+     */
+    public long[] allocate(String sequence, int count) {
+        Block block = blocks.computeIfAbsent(checked(sequence), name -> new Block(incrementer(name)));
+        long[] ids = new long[count];
+        synchronized (block) {
+            for (int i = 0; i < count; i++) {
+                if (block.next >= block.limit) {
+                    long lo;
+                    try {
+                        lo = block.incrementer.nextLongValue();
+                    } catch (DataAccessException ex) {
+                        logger.error("Could not read sequence {}", sequence, ex);
+                        throw new IdAllocationException("Ids cannot be allocated right now", ex);
+                    }
+                    block.next = lo;
+                    block.limit = lo + increment;
+                }
+                ids[i] = block.next++;
+            }
+        }
+        return ids;
+    }
+
+    private DataFieldMaxValueIncrementer incrementer(String sequence) {
+        String product;
+        try {
+            product = JdbcUtils.commonDatabaseName(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Could not determine the database type", ex);
+        }
+        if ("PostgreSQL".equals(product)) {
+            return new PostgresSequenceMaxValueIncrementer(dataSource, sequence);
+        }
+        return new H2SequenceMaxValueIncrementer(dataSource, sequence);
+    }
+
+    // Names are concatenated into SQL, so only plain identifiers are accepted
+    private static String checked(String identifier) {
+        if (!IDENTIFIER.matcher(identifier).matches()) {
+            throw new IllegalArgumentException("Invalid identifier: " + identifier);
+        }
+        return identifier;
+    }
+
+    private static final class Block {
+        final DataFieldMaxValueIncrementer incrementer;
+        long next;
+        long limit;
+
+        Block(DataFieldMaxValueIncrementer incrementer) {
+            this.incrementer = incrementer;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.marocotransport.repository;
+
+import com.maroctransit.auth.dto.CursorPage;
+import com.maroctransit.auth.dto.TruckSummaryDTO;
+import com.marocotransport.util.KeysetCursor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated truck listing that reads only the listed columns.
+ * Every filter combination is backed by a composite index (V1__listing_indexes.sql and
+ * V7__listing_filter_indexes.sql migrations); a carrier's own fleet is listed through
+ * V8__carrier_listing_index.sql.
+ */
+@Repository
+public class TruckListingRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TruckListingRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One page of trucks, newest first
+     *
+     * @param carrierUsername when not null, only this carrier's trucks are listed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TruckSummaryDTO> findPage(String carrierUsername, String type, String location,
+                                                Boolean available, KeysetCursor after, int size) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, type, location, available, created_at FROM trucks WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (carrierUsername != null) {
+            sql.append(" AND carrier_id = (SELECT id FROM users WHERE email = :username)");
+            params.addValue("username", carrierUsername);
+        }
+        if (available != null) {
+            sql.append(" AND available = :available");
+            params.addValue("available", available);
+        }
+        if (type != null) {
+            sql.append(" AND type = :type");
+            params.addValue("type", type);
+        }
+        if (location != null) {
+            sql.append(" AND location = :location");
+            params.addValue("location", location);
+        }
+        if (after != null) {
+            sql.append(" AND (created_at, id) < (:createdAt, :id)");
+            params.addValue("createdAt", after.getCreatedAtTimestamp());
+            params.addValue("id", after.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+        params.addValue("limit", size + 1);
+
+        List<TruckSummaryDTO> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new TruckSummaryDTO(
+                rs.getLong("id"),
+                rs.getString("type"),
+                rs.getString("location"),
+                rs.getBoolean("available"),
+                rs.getTimestamp("created_at").toLocalDateTime()));
+        return KeysetCursor.page(rows, size, truck -> new KeysetCursor(truck.getCreatedAt(), truck.getId()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.marocotransport.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Id-only lookups of which trucks exist and which carrier owns them, for authorization checks that should
+ * not load whole trucks. Id lists are split into IN queries of bounded size.
+ */
+@Repository
+public class TruckOwnershipRepository {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private static final String SELECT_EXISTING = "SELECT id FROM trucks WHERE id IN (:ids)";
+
+    private static final String SELECT_OWNED =
+            "SELECT t.id FROM trucks t JOIN users u ON u.id = t.carrier_id "
+                    + "WHERE u.email = :username AND t.id IN (:ids)";
+
+    private static final String SELECT_OWNER =
+            "SELECT u.email FROM trucks t JOIN users u ON u.id = t.carrier_id WHERE t.id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TruckOwnershipRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The given ids that belong to existing trucks
+     */
+    public Set<Long> findExisting(Collection<Long> truckIds) {
+        return selectIds(SELECT_EXISTING, new MapSqlParameterSource(), truckIds);
+    }
+
+    /**
+     * The given ids that belong to trucks owned by the carrier with this username (email)
+     */
+    public Set<Long> findOwnedBy(String username, Collection<Long> truckIds) {
+        return selectIds(SELECT_OWNED, new MapSqlParameterSource("username", username), truckIds);
+    }
+
+    /**
+     * Username (email) of the carrier owning a truck; empty if the truck does not exist
+     */
+    public Optional<String> findOwner(Long truckId) {
+        List<String> owners = jdbcTemplate.queryForList(SELECT_OWNER, new MapSqlParameterSource("id", truckId),
+                String.class);
+        return owners.stream().findFirst();
+    }
+
+    private Set<Long> selectIds(String sql, MapSqlParameterSource params, Collection<Long> truckIds) {
+        Set<Long> found = new HashSet<>();
+        List<Long> ids = new ArrayList<>(new HashSet<>(truckIds));
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            params.addValue("ids", ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_QUERY)));
+            found.addAll(jdbcTemplate.queryForList(sql, params, Long.class));
+        }
+        return found;
+    }
+}
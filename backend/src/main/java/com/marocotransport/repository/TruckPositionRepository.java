@@ -0,0 +1,42 @@
+package com.marocotransport.repository;
+
+import com.marocotransport.telemetry.TruckPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batched writes of GPS positions to the trucks table (columns added by the V2__truck_telemetry.sql migration)
+ */
+@Repository
+public class TruckPositionRepository {
+
+    private static final String UPDATE_POSITION =
+            "UPDATE trucks SET latitude = ?, longitude = ?, position_recorded_at = ? "
+                    + "WHERE id = ? AND (position_recorded_at IS NULL OR position_recorded_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TruckPositionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Write the given positions as JDBC batches; older reports never overwrite newer ones
+     */
+    public void updatePositions(Collection<TruckPosition> positions, int batchSize) {
+        List<Object[]> rows = new ArrayList<>(positions.size());
+        for (TruckPosition position : positions) {
+            Timestamp recordedAt = new Timestamp(position.getRecordedAt());
+            rows.add(new Object[]{position.getLatitude(), position.getLongitude(), recordedAt,
+                    position.getTruckId(), recordedAt});
+        }
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(UPDATE_POSITION, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+}
@@ -1,9 +1,41 @@
 package com.marocotransport.repository;
 
+import com.marocotransport.config.SecondLevelCacheConfig;
 import com.marocotransport.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Per-request user lookups: the query cache maps the email to an id, the entity comes from the L2 cache
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = SecondLevelCacheConfig.USER_LOOKUPS)
+    })
     Optional<User> findByEmail(String email);
-} 
\ No newline at end of file
+
+    // The user listing reads the replica; its possibly lagging rows must not be put in the cache
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS"))
+    @Override
+    List<User> findAll();
+
+    // Server-side cursor for exports: rows are fetched in chunks and never loaded all at once
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        // A full scan on the replica would otherwise flush the hot users out of the second-level cache and put
+        // lagging rows in their place
+        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllBy();
+
+    // Identifiers only, for rebuilding the signup uniqueness filter without loading entities
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+} 
@@ -1,8 +1,13 @@
 package com.marocotransport.security;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +20,8 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -25,6 +32,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Build the Authentication from the signed roles claim instead of loading the user
+    @Value("${jwt.stateless-auth.enabled:false}")
+    private boolean statelessAuth;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -35,12 +52,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extract JWT token from the request
             String jwt = getJwtFromRequest(request);
 
-            // Validate the token and set up authentication
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-
-                // Load user details
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Validate the token (parsed once, then served from the cache) and set up authentication
+            VerifiedTokenCache.VerifiedToken verified = StringUtils.hasText(jwt) ? verify(jwt) : null;
+            if (verified != null && !tokenRevocationService.isRevoked(
+                    jwt, verified.getUsername(), verified.getClaims().getIssuedAt())) {
+                UserDetails userDetails = verified.getUserDetails();
                 
                 // Create authentication token
                 UsernamePasswordAuthenticationToken authentication = 
@@ -64,6 +80,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private VerifiedTokenCache.VerifiedToken verify(String jwt) {
+        VerifiedTokenCache.VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = tokenProvider.getValidClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+
+        // Stateless mode trusts the signed claims; otherwise load user details
+        UserDetails userDetails = statelessAuth
+                ? userDetailsFromClaims(claims)
+                : userDetailsService.loadUserByUsername(claims.getSubject());
+        return verifiedTokenCache.put(jwt, claims, userDetails);
+    }
+
+    private UserDetails userDetailsFromClaims(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (roles != null) {
+            for (Object role : roles) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+            }
+        }
+        return User.withUsername(claims.getSubject())
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         
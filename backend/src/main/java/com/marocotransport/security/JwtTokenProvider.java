@@ -75,6 +75,21 @@ public class JwtTokenProvider {
                 .getSubject();
     }
     
+    /**
+     * Parse and verify a JWT token once, returning its claims or null when the token is invalid
+     */
+    public Claims getValidClaims(String token) {
+        try {
+            return Jwts.parser()
+                    .setSigningKey(jwtSecret)
+                    .parseClaimsJws(token)
+                    .getBody();
+        } catch (SignatureException | MalformedJwtException | ExpiredJwtException | 
+                UnsupportedJwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+    
     /**
      * Validate JWT token
      */
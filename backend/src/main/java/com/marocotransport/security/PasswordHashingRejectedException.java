@@ -0,0 +1,18 @@
+package com.marocotransport.security;
+
+/**
+ * Thrown when the password hashing executor is saturated; mapped to 429 Too Many Requests
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
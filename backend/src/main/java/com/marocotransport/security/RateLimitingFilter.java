@@ -0,0 +1,155 @@
+package com.marocotransport.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maroctransit.auth.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client request rate limiting, applied after JWT authentication so authenticated callers are limited
+ * per principal and anonymous callers per client IP.
+ *
+ * Each (route group, client) pair has a token bucket refilled at {@code requests-per-second} and holding
+ * at most {@code burst} tokens. A bucket is stored as a single "theoretical arrival time" in an AtomicLong
+ * (the GCRA form of a token bucket) and updated with a CAS loop, so checking a request takes no lock.
+ * Buckets live in a Caffeine cache bounded by {@code max-buckets}: a bucket idle for longer than the
+ * slowest group's refill time has refilled completely, is indistinguishable from a new one and expires.
+ * Expiry and size eviction are amortized by Caffeine, so no request ever pays for a sweep.
+ */
+@Component
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final Limit authLimit;
+    private final Limit matchingLimit;
+    private final Limit listingsLimit;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimitingFilter(ObjectMapper objectMapper,
+                              @Value("${ratelimit.auth.requests-per-second:5}") double authRate,
+                              @Value("${ratelimit.auth.burst:10}") int authBurst,
+                              @Value("${ratelimit.matching.requests-per-second:10}") double matchingRate,
+                              @Value("${ratelimit.matching.burst:20}") int matchingBurst,
+                              @Value("${ratelimit.listings.requests-per-second:50}") double listingsRate,
+                              @Value("${ratelimit.listings.burst:100}") int listingsBurst,
+                              @Value("${ratelimit.max-buckets:100000}") int maxBuckets) {
+        this.objectMapper = objectMapper;
+        this.authLimit = new Limit("auth", authRate, authBurst);
+        this.matchingLimit = new Limit("matching", matchingRate, matchingBurst);
+        this.listingsLimit = new Limit("listings", listingsRate, listingsBurst);
+        long refillNanos = Math.max(authLimit.burstNanos, Math.max(matchingLimit.burstNanos, listingsLimit.burstNanos));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofNanos(refillNanos))
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Limit limit = limitFor(request);
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        String key = limit.group + ':' + clientKey(request);
+        // A bucket whose arrival time is now is full
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+
+        long waitNanos = limit.acquire(bucket, now);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Limit limitFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/v1/auth/")) {
+            return authLimit;
+        }
+        if (path.startsWith("/api/v1/matching/")) {
+            return matchingLimit;
+        }
+        if ("GET".equals(request.getMethod())
+                && (path.startsWith("/api/v1/jobs") || path.startsWith("/api/v1/trucks"))) {
+            return listingsLimit;
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // Behind a proxy, enable server.forward-headers-strategy so this is the real client address
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, retry later"));
+    }
+
+    /**
+     * Rate and burst of one route group (package-private for tests)
+     */
+    static final class Limit {
+        private final String group;
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+
+        Limit(String group, double requestsPerSecond, int burst) {
+            this.group = group;
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+            this.burstNanos = emissionIntervalNanos * Math.max(1, burst);
+        }
+
+        /**
+         * Take one token from the bucket
+         *
+         * @return 0 if allowed, otherwise nanoseconds until a token becomes available
+         */
+        long acquire(AtomicLong bucket, long now) {
+            while (true) {
+                long arrival = bucket.get();
+                long start = arrival - now < 0 ? now : arrival;
+                long next = start + emissionIntervalNanos;
+                long overflow = next - now - burstNanos;
+                if (overflow > 0) {
+                    return overflow;
+                }
+                if (bucket.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
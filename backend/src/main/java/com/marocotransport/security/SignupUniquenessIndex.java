@@ -0,0 +1,129 @@
+package com.marocotransport.security;
+
+import com.marocotransport.repository.UserRepository;
+import com.marocotransport.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory pre-check for signup uniqueness, so a registration with an unseen email skips the existence
+ * lookup and goes straight to the insert.
+ *
+ * A bloom filter over every registered email (compared case-insensitively) is built at startup by
+ * streaming the users table and extended on each signup and each UserService save. Usernames are stored as
+ * the email, so the same filter answers both checks. Until it is built, everything "might exist" and
+ * callers fall back to the database. Deletions cannot be removed from the filter, so they only add false
+ * positives; the filter is rebuilt once enough have accumulated. The unique constraint remains the guard
+ * against duplicates, including registrations made through other instances.
+ */
+@Component
+public class SignupUniquenessIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignupUniquenessIndex.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final long rebuildAfterDeletes;
+
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+
+    private volatile BloomFilter filter;
+    private volatile long filterCapacity;
+
+    // Filter being rebuilt; signups during a rebuild go into both so none is lost on the swap
+    private volatile BloomFilter building;
+
+    public SignupUniquenessIndex(UserRepository userRepository,
+                                 @Value("${signup.bloom.expected-users:1000000}") long expectedUsers,
+                                 @Value("${signup.bloom.rebuild-after-deletes:10000}") long rebuildAfterDeletes) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.rebuildAfterDeletes = rebuildAfterDeletes;
+    }
+
+    /**
+     * False only if no user has registered this email; true means the database must be asked
+     */
+    public boolean mightExist(String identifier) {
+        BloomFilter current = filter;
+        return current == null || identifier == null || current.mightContain(normalize(identifier));
+    }
+
+    public void recordAdded(String identifier) {
+        if (identifier == null) {
+            return;
+        }
+        String key = normalize(identifier);
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(key);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        added.incrementAndGet();
+    }
+
+    public void recordDeleted() {
+        deletedSinceBuild.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild once deletions have made the filter stale, or signups have outgrown its sizing
+     */
+    @Scheduled(fixedDelayString = "${signup.bloom.check-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void rebuildIfStale() {
+        if (filter != null
+                && (deletedSinceBuild.get() >= rebuildAfterDeletes || added.get() > filterCapacity)) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        long start = System.nanoTime();
+        long deletedBefore = deletedSinceBuild.get();
+        long count = userRepository.count();
+        long capacity = Math.max(expectedUsers, count * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        building = rebuilt;
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(email -> rebuilt.put(normalize(email)));
+        } catch (RuntimeException ex) {
+            building = null;
+            logger.warn("Could not rebuild signup uniqueness filter, keeping the previous one", ex);
+            return;
+        }
+        filter = rebuilt;
+        filterCapacity = capacity;
+        building = null;
+        added.set(count);
+        deletedSinceBuild.addAndGet(-deletedBefore);
+        logger.info("Signup uniqueness filter rebuilt from {} users in {} ms",
+                count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static String normalize(String identifier) {
+        return identifier.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,121 @@
+package com.marocotransport.security;
+
+import com.marocotransport.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory token revocation, checked on every authenticated request without touching the database.
+ *
+ * Two mechanisms are supported: individual tokens (e.g. on logout) go into a deny-list fronted by a bloom
+ * filter, so the common "not revoked" answer is a few bit reads; and per-user cut-offs reject every token
+ * issued to a user before a given instant (used when a user is deleted or deactivated).
+ *
+ * Revocations are neither persisted nor shared: they hold only on the instance that recorded them and are lost
+ * on restart, after which a logged-out token is accepted again until it expires. Run a single backend instance
+ * while this is the case.
+ */
+@Component
+public class TokenRevocationService {
+
+    private final long expectedRevocations;
+
+    // Longest lifetime of any issued token (ms); older per-user cut-offs can no longer match a valid token
+    private final long maxTokenLifetimeMillis;
+
+    // token hash -> token expiry (ms); entries can be dropped once the token would have expired anyway
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // lower-cased username -> instant (ms) the user's tokens were revoked
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter revokedFilter;
+
+    public TokenRevocationService(@Value("${jwt.revocation.expected-size:100000}") long expectedRevocations,
+                                  @Value("${jwt.expiration}") long accessTokenLifetimeMillis,
+                                  @Value("${jwt.refreshExpiration}") long refreshTokenLifetimeMillis) {
+        this.expectedRevocations = expectedRevocations;
+        this.maxTokenLifetimeMillis = Math.max(accessTokenLifetimeMillis, refreshTokenLifetimeMillis);
+        this.revokedFilter = new BloomFilter(expectedRevocations, 0.001);
+    }
+
+    /**
+     * Revoke a single token until it expires
+     */
+    public synchronized void revokeToken(String token, Date expiration) {
+        String hash = VerifiedTokenCache.hash(token);
+        long expiresAt = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        revokedTokens.put(hash, expiresAt);
+        revokedFilter.put(hash);
+        if (revokedTokens.size() > expectedRevocations) {
+            purgeExpired();
+        }
+    }
+
+    /**
+     * Reject every token issued to a user before the current second (token issue times are whole seconds)
+     */
+    public void revokeUser(String username) {
+        revokedBefore.put(key(username), System.currentTimeMillis());
+    }
+
+    /**
+     * True if every token of the user was revoked at or after the given time (for sessions held without
+     * their token, e.g. background work under a captured authentication)
+     */
+    public boolean isUserRevokedSince(String username, long sinceMillis) {
+        Long cutoff = revokedBefore.get(key(username));
+        return cutoff != null && cutoff >= sinceMillis;
+    }
+
+    /**
+     * True if the token was revoked on its own, or issued before its user's cut-off.
+     *
+     * A JWT's iat has whole-second precision, so the cut-off is taken down to the start of the second the user
+     * was revoked in: a token issued again later in that second (a login right after a role change) is
+     * accepted, at the price of also accepting one issued earlier in that same second.
+     */
+    public boolean isRevoked(String token, String username, Date issuedAt) {
+        if (!revokedBefore.isEmpty()) {
+            Long revokedAt = revokedBefore.get(key(username));
+            if (revokedAt != null && (issuedAt == null || issuedAt.getTime() < wholeSecond(revokedAt))) {
+                return true;
+            }
+        }
+        if (revokedTokens.isEmpty()) {
+            return false;
+        }
+        String hash = VerifiedTokenCache.hash(token);
+        // Bloom filter negatives are definite; positives are confirmed against the exact deny-list
+        return revokedFilter.mightContain(hash) && revokedTokens.containsKey(hash);
+    }
+
+    /**
+     * Forget revocations that can no longer match an unexpired token and rebuild the bloom filter from what
+     * is left
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedBefore.values().removeIf(cutoff -> cutoff < now - maxTokenLifetimeMillis);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedTokens.size() * 2L), 0.001);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        revokedFilter = rebuilt;
+    }
+
+    private static long wholeSecond(long millis) {
+        return millis - Math.floorMod(millis, 1000L);
+    }
+
+    // Usernames are email addresses; the stored email and the token subject may differ in case
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
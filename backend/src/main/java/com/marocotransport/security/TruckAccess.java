@@ -0,0 +1,52 @@
+package com.marocotransport.security;
+
+import com.marocotransport.repository.TruckOwnershipRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Row-level truck authorization: administrators may act on any existing truck, carriers only on their own.
+ */
+@Component
+public class TruckAccess {
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final TruckOwnershipRepository truckOwnershipRepository;
+
+    public TruckAccess(TruckOwnershipRepository truckOwnershipRepository) {
+        this.truckOwnershipRepository = truckOwnershipRepository;
+    }
+
+    /**
+     * The given truck ids the caller may act on; unknown ids are never included
+     */
+    public Set<Long> accessibleTrucks(Authentication authentication, Collection<Long> truckIds) {
+        if (truckIds.isEmpty()) {
+            return Set.of();
+        }
+        return isAdmin(authentication)
+                ? truckOwnershipRepository.findExisting(truckIds)
+                : truckOwnershipRepository.findOwnedBy(authentication.getName(), truckIds);
+    }
+
+    /**
+     * True if the truck exists and the caller may act on it
+     */
+    public boolean canAccess(Authentication authentication, Long truckId) {
+        return accessibleTrucks(authentication, Set.of(truckId)).contains(truckId);
+    }
+
+    public static boolean isAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ROLE_ADMIN.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,120 @@
+package com.marocotransport.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already-verified JWTs, so each token is parsed and its user loaded once rather than on
+ * every request.
+ *
+ * Entries are keyed by a SHA-256 hash of the token (raw tokens are never held) and expire at the earlier of
+ * the token's own expiry and a configurable TTL. Entries for a user are dropped when the user is deleted,
+ * deactivated, renamed or given another role.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.cache.ttl-seconds:300}") long ttlSeconds) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                token.getClaims().getExpiration().getTime() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Cached verification result for a token, or null if it has not been seen (or has expired)
+     */
+    public VerifiedToken get(String token) {
+        return cache.getIfPresent(hash(token));
+    }
+
+    public VerifiedToken put(String token, Claims claims, UserDetails userDetails) {
+        VerifiedToken verified = new VerifiedToken(claims, userDetails);
+        if (claims.getExpiration() != null) {
+            cache.put(hash(token), verified);
+        }
+        return verified;
+    }
+
+    /**
+     * Drop every cached token belonging to a user, matched case-insensitively against both the token
+     * subject and the resolved user's name (an email address either way)
+     */
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(token -> username.equalsIgnoreCase(token.getUsername())
+                || username.equalsIgnoreCase(token.getUserDetails().getUsername()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Parsed claims and resolved user for a verified token
+     */
+    public static final class VerifiedToken {
+        private final Claims claims;
+        private final UserDetails userDetails;
+
+        VerifiedToken(Claims claims, UserDetails userDetails) {
+            this.claims = claims;
+            this.userDetails = userDetails;
+        }
+
+        public Claims getClaims() {
+            return claims;
+        }
+
+        public UserDetails getUserDetails() {
+            return userDetails;
+        }
+
+        public String getUsername() {
+            return claims.getSubject();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.marocotransport.service;
+
+import com.maroctransit.auth.dto.BatchAssignmentDTO;
+import com.maroctransit.auth.dto.BatchMatchingResultDTO;
+import com.maroctransit.auth.dto.JobCandidateDTO;
+import com.maroctransit.auth.dto.TruckCandidateDTO;
+import com.marocotransport.analytics.MatchingAnalyticsEngine;
+import com.marocotransport.matching.AssignmentSolver;
+import com.marocotransport.matching.CityCoordinates;
+import com.marocotransport.matching.CityDistanceMatrix;
+import com.marocotransport.matching.FleetColumns;
+import com.marocotransport.matching.MatchScoringKernel;
+import com.marocotransport.matching.TruckSpatialIndex;
+import com.marocotransport.repository.JobAssignmentRepository;
+import com.marocotransport.repository.MatchingCandidateRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Batch matching: solves N jobs against M trucks as a single best-total-score assignment so that two jobs
+ * never compete for the same truck
+ */
+@Service
+public class BatchMatchingService {
+
+    private static final int CANDIDATES_PER_JOB = 50;
+
+    // The cost matrix is dense and the solve is O(n^2 * m), so both sides of a batch are bounded
+    public static final int MAX_JOBS = 500;
+    public static final int MAX_TRUCKS = 2000;
+
+    private final MatchingCandidateRepository matchingCandidateRepository;
+    private final TruckSpatialIndex truckSpatialIndex;
+    private final MatchScoringKernel matchScoringKernel;
+    private final CityDistanceMatrix cityDistanceMatrix;
+    private final MatchingAnalyticsEngine matchingAnalytics;
+    private final JobAssignmentRepository jobAssignmentRepository;
+    private final AssignmentSolver assignmentSolver = new AssignmentSolver();
+
+    // Id chunks are loaded concurrently, with the caller's security context
+    private final Executor loadExecutor;
+
+    public BatchMatchingService(MatchingCandidateRepository matchingCandidateRepository,
+                                TruckSpatialIndex truckSpatialIndex, MatchScoringKernel matchScoringKernel,
+                                CityDistanceMatrix cityDistanceMatrix,
+                                MatchingAnalyticsEngine matchingAnalytics,
+                                JobAssignmentRepository jobAssignmentRepository,
+                                @Qualifier("matchingLoadExecutor") AsyncTaskExecutor matchingLoadExecutor) {
+        this.matchingCandidateRepository = matchingCandidateRepository;
+        this.truckSpatialIndex = truckSpatialIndex;
+        this.matchScoringKernel = matchScoringKernel;
+        this.cityDistanceMatrix = cityDistanceMatrix;
+        this.matchingAnalytics = matchingAnalytics;
+        this.jobAssignmentRepository = jobAssignmentRepository;
+        this.loadExecutor = new DelegatingSecurityContextExecutor(matchingLoadExecutor);
+    }
+
+    /**
+     * Assign jobs to trucks maximizing the total match score (distance, capacity fit, fuel efficiency).
+     *
+     * Jobs that do not exist, are not open, or that the shipper did not post, are reported as unassigned.
+     * Trucks already assigned to another open job are not used; a job whose truck a concurrent run took
+     * before this one was saved is reported as unassigned too.
+     *
+     * @param jobIds jobs to place
+     * @param truckIds candidate trucks; when empty, available trucks near each job's origin are used
+     * @param maxDistanceKm pairs further apart than this are never assigned
+     * @param shipperUsername when not null, only this shipper's jobs are placed
+     * @throws IllegalArgumentException if there are more than {@link #MAX_JOBS} jobs or
+     *         {@link #MAX_TRUCKS} candidate trucks
+     */
+    public BatchMatchingResultDTO assign(List<Long> jobIds, List<Long> truckIds, double maxDistanceKm,
+                                         String shipperUsername) {
+        long start = System.nanoTime();
+
+        Set<Long> requestedJobIds = new LinkedHashSet<>(jobIds);
+        if (requestedJobIds.size() > MAX_JOBS) {
+            throw new IllegalArgumentException("At most " + MAX_JOBS + " jobs per batch");
+        }
+        List<JobCandidateDTO> jobs = loadAll(requestedJobIds,
+                chunk -> matchingCandidateRepository.findJobs(chunk, shipperUsername));
+
+        Set<Long> candidateIds = new LinkedHashSet<>();
+        if (truckIds != null && !truckIds.isEmpty()) {
+            candidateIds.addAll(truckIds);
+        } else {
+            for (JobCandidateDTO job : jobs) {
+                candidateIds.addAll(truckSpatialIndex.findCandidates(job.getOrigin(), maxDistanceKm, CANDIDATES_PER_JOB));
+            }
+        }
+        if (candidateIds.size() > MAX_TRUCKS) {
+            throw new IllegalArgumentException("At most " + MAX_TRUCKS
+                    + " candidate trucks per batch; pass truckIds or a smaller maxDistanceKm");
+        }
+        // Trucks holding another job's assignment are left out; those of the jobs placed here are reassigned
+        List<Long> placedJobIds = new ArrayList<>(jobs.size());
+        for (JobCandidateDTO job : jobs) {
+            placedJobIds.add(job.getId());
+        }
+        List<TruckCandidateDTO> trucks = loadAll(candidateIds,
+                chunk -> matchingCandidateRepository.findTrucks(chunk, placedJobIds));
+        trucks.removeIf(truck -> !truck.isAvailable());
+
+        int n = jobs.size();
+        int m = trucks.size();
+        FleetColumns fleet = FleetColumns.of(trucks, truckSpatialIndex);
+        double[][] jobOrigins = new double[n][];
+        int[] jobCities = new int[n];
+        for (int i = 0; i < n; i++) {
+            jobOrigins[i] = CityCoordinates.lookup(jobs.get(i).getOrigin());
+            jobCities[i] = cityDistanceMatrix.indexOf(jobs.get(i).getOrigin());
+        }
+
+        // Rows are independent, so the N x M cost matrix is filled across the common ForkJoin pool.
+        // The kernel writes scores straight into the row, which is then turned into a cost in place.
+        double[][] cost = new double[n][m];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            double[] row = cost[i];
+            double[] origin = jobOrigins[i];
+            if (origin == null) {
+                Arrays.fill(row, AssignmentSolver.FORBIDDEN);
+                return;
+            }
+            Double weight = jobs.get(i).getWeight();
+            matchScoringKernel.score(origin[0], origin[1], jobCities[i], weight != null ? weight : 0.0,
+                    maxDistanceKm, fleet, row);
+            for (int j = 0; j < m; j++) {
+                row[j] = row[j] == MatchScoringKernel.INFEASIBLE ? AssignmentSolver.FORBIDDEN : 1.0 - row[j];
+            }
+        });
+
+        int[] assignment = assignmentSolver.solve(cost);
+
+        // DTOs are only built for the chosen pairs
+        List<BatchAssignmentDTO> assignments = new ArrayList<>();
+        List<Long> unassigned = new ArrayList<>();
+        Set<Long> loadedJobIds = new HashSet<>();
+        for (JobCandidateDTO job : jobs) {
+            loadedJobIds.add(job.getId());
+        }
+        for (Long jobId : requestedJobIds) {
+            if (!loadedJobIds.contains(jobId)) {
+                unassigned.add(jobId);
+            }
+        }
+        double totalDistance = 0.0;
+        for (int i = 0; i < n; i++) {
+            int j = assignment[i];
+            if (j < 0) {
+                unassigned.add(jobs.get(i).getId());
+                continue;
+            }
+            double distance;
+            if (fleet.cityAt(j) >= 0 && jobCities[i] >= 0) {
+                distance = cityDistanceMatrix.distanceKm(jobCities[i], fleet.cityAt(j));
+            } else {
+                double[] position = fleet.positionAt(j);
+                distance = CityCoordinates.haversineKm(jobOrigins[i][0], jobOrigins[i][1], position[0], position[1]);
+                if (jobCities[i] >= 0) {
+                    // Same road-distance estimate the kernel scored with
+                    distance *= cityDistanceMatrix.getDetourFactor();
+                }
+            }
+            totalDistance += distance;
+            JobCandidateDTO job = jobs.get(i);
+            double score = 1.0 - cost[i][j];
+            assignments.add(new BatchAssignmentDTO(job.getId(), trucks.get(j).getId(), distance, score));
+        }
+        // Persisted so the carrier's accept/decline can be checked against the assignment
+        Map<Long, JobAssignmentRepository.Saved> saved;
+        try {
+            saved = jobAssignmentRepository.saveAll(assignments);
+        } catch (DuplicateKeyException ex) {
+            // A concurrent run stored a first assignment of one of these jobs; this run's save was rolled back
+            saved = Map.of();
+        }
+
+        // Analytics only count what this run changed, once it is committed; re-runs are not new assignments
+        for (int i = 0; i < n; i++) {
+            JobCandidateDTO job = jobs.get(i);
+            JobAssignmentRepository.Saved outcome = saved.get(job.getId());
+            if (outcome != null && outcome.isNew()) {
+                matchingAnalytics.recordAssignment(job.getId(), job.getOrigin(), job.getDestination(),
+                        1.0 - cost[i][assignment[i]]);
+            }
+        }
+        // Jobs the carrier already accepted keep that assignment, and a truck another job took meanwhile is
+        // not assigned twice
+        for (Iterator<BatchAssignmentDTO> it = assignments.iterator(); it.hasNext(); ) {
+            BatchAssignmentDTO dropped = it.next();
+            JobAssignmentRepository.Saved outcome = saved.get(dropped.getJobId());
+            if (outcome == null || !outcome.isStored()) {
+                it.remove();
+                unassigned.add(dropped.getJobId());
+                totalDistance -= dropped.getDistanceKm();
+            }
+        }
+        matchingAnalytics.recordUnassigned(unassigned.size());
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new BatchMatchingResultDTO(assignments, unassigned, totalDistance, elapsedMillis);
+    }
+
+    /**
+     * Load rows with one IN query per chunk of ids, chunks running concurrently on the matching executor
+     * (virtual threads when enabled); keeps id order and leaves out unknown ids
+     */
+    private <T> List<T> loadAll(Collection<Long> ids, Function<List<Long>, List<T>> loader) {
+        List<Long> ordered = new ArrayList<>(ids);
+        List<CompletableFuture<List<T>>> pending = new ArrayList<>();
+        for (int from = 0; from < ordered.size(); from += MatchingCandidateRepository.MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ordered.subList(from,
+                    Math.min(ordered.size(), from + MatchingCandidateRepository.MAX_IDS_PER_QUERY));
+            pending.add(CompletableFuture.supplyAsync(() -> loader.apply(chunk), loadExecutor));
+        }
+        List<T> loaded = new ArrayList<>(ordered.size());
+        try {
+            for (CompletableFuture<List<T>> future : pending) {
+                loaded.addAll(future.join());
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+        return loaded;
+    }
+}
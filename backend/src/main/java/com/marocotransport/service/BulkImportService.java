@@ -0,0 +1,301 @@
+package com.marocotransport.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maroctransit.auth.dto.BulkImportErrorDTO;
+import com.maroctransit.auth.dto.BulkImportResultDTO;
+import com.maroctransit.auth.dto.JobImportRowDTO;
+import com.maroctransit.auth.dto.TruckAvailabilityEvent;
+import com.maroctransit.auth.dto.TruckImportRowDTO;
+import com.marocotransport.entity.User;
+import com.marocotransport.matching.CityCoordinates;
+import com.marocotransport.matching.TruckSpatialIndex;
+import com.marocotransport.realtime.TruckAvailabilityBroadcaster;
+import com.marocotransport.repository.BulkInsertRepository;
+import com.marocotransport.repository.SequenceIdAllocator;
+import com.marocotransport.repository.UserRepository;
+import com.marocotransport.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of jobs and trucks from CSV or NDJSON uploads.
+ *
+ * The upload is streamed record by record: each row is parsed and validated, valid rows are collected into
+ * chunks, and each chunk gets its ids from the sequence in one allocation and is inserted as one JDBC batch
+ * in its own transaction. A rejected row is reported with its row number and never aborts the import; if a
+ * batch fails in the database, its rows are retried one by one so only the offending rows are rejected.
+ * Database errors are logged; the caller only sees a generic per-row message.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    /**
+     * Upload formats, chosen by the request's content type
+     */
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            return type.startsWith("text/csv") ? CSV : NDJSON;
+        }
+    }
+
+    private final BulkInsertRepository bulkInsertRepository;
+    private final SequenceIdAllocator idAllocator;
+    private final UserRepository userRepository;
+    private final TruckSpatialIndex truckSpatialIndex;
+    private final TruckAvailabilityBroadcaster availabilityBroadcaster;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long maxRows;
+    private final int maxReportedErrors;
+
+    public BulkImportService(BulkInsertRepository bulkInsertRepository, SequenceIdAllocator idAllocator,
+                             UserRepository userRepository, TruckSpatialIndex truckSpatialIndex,
+                             TruckAvailabilityBroadcaster availabilityBroadcaster,
+                             ObjectMapper objectMapper, Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${bulk-import.batch-size:500}") int batchSize,
+                             @Value("${bulk-import.max-rows:100000}") long maxRows,
+                             @Value("${bulk-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.idAllocator = idAllocator;
+        this.userRepository = userRepository;
+        this.truckSpatialIndex = truckSpatialIndex;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Import jobs owned by the given user
+     */
+    public BulkImportResultDTO importJobs(InputStream input, Format format, String username) throws IOException {
+        long shipperId = ownerId(username);
+        return importRows(input, format, JobImportRowDTO.class, SequenceIdAllocator.JOBS_SEQUENCE,
+                (rows, ids) -> bulkInsertRepository.insertJobs(rows, ids, shipperId),
+                (rows, ids) -> { });
+    }
+
+    /**
+     * Import trucks owned by the given user; available trucks in known cities are indexed for matching and
+     * every imported truck is announced to live dashboards
+     */
+    public BulkImportResultDTO importTrucks(InputStream input, Format format, String username) throws IOException {
+        long carrierId = ownerId(username);
+        return importRows(input, format, TruckImportRowDTO.class, SequenceIdAllocator.TRUCKS_SEQUENCE,
+                (rows, ids) -> bulkInsertRepository.insertTrucks(rows, ids, carrierId),
+                (rows, ids) -> onTrucksImported(rows, ids, username));
+    }
+
+    private <T> BulkImportResultDTO importRows(InputStream input, Format format, Class<T> rowType,
+                                               String sequence, ChunkWriter<T> writer,
+                                               ChunkWriter<T> afterCommit) throws IOException {
+        long start = System.nanoTime();
+        Import<T> state = new Import<>(sequence, writer, afterCommit);
+
+        if (format == Format.CSV) {
+            try (CsvReader csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                List<String> header = csv.next();
+                if (header != null) {
+                    List<String> columns = header.stream().map(String::trim).collect(Collectors.toList());
+                    List<String> record;
+                    while ((record = csv.next()) != null && !state.atRowLimit()) {
+                        long row = state.received + 1;
+                        state.received++;
+                        if (record.size() != columns.size()) {
+                            state.reject(row, "Expected " + columns.size() + " fields, found " + record.size());
+                            continue;
+                        }
+                        Map<String, String> values = new HashMap<>();
+                        for (int i = 0; i < columns.size(); i++) {
+                            String value = record.get(i).trim();
+                            values.put(columns.get(i), value.isEmpty() ? null : value);
+                        }
+                        T parsed;
+                        try {
+                            parsed = objectMapper.convertValue(values, rowType);
+                        } catch (IllegalArgumentException ex) {
+                            state.reject(row, ex.getCause() instanceof JsonProcessingException
+                                    ? "Invalid value: " + ((JsonProcessingException) ex.getCause()).getOriginalMessage()
+                                    : "Invalid value");
+                            continue;
+                        }
+                        state.accept(row, parsed);
+                    }
+                }
+            } catch (IOException ex) {
+                // Malformed CSV past this point: keep what was read and report where it stopped
+                state.reject(state.received + 1, "Unreadable CSV: " + ex.getMessage());
+            }
+        } else {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (state.atRowLimit()) {
+                        break;
+                    }
+                    long row = state.received + 1;
+                    state.received++;
+                    T parsed;
+                    try {
+                        parsed = objectMapper.readValue(line, rowType);
+                    } catch (JsonProcessingException ex) {
+                        state.reject(row, "Invalid JSON: " + ex.getOriginalMessage());
+                        continue;
+                    }
+                    state.accept(row, parsed);
+                }
+            }
+        }
+        state.flush();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new BulkImportResultDTO(state.received, state.importedIds.size(), state.failed,
+                state.importedIds, state.errors, state.failed > state.errors.size(), elapsedMillis);
+    }
+
+    private void onTrucksImported(List<TruckImportRowDTO> trucks, long[] ids, String owner) {
+        for (int i = 0; i < trucks.size(); i++) {
+            TruckImportRowDTO truck = trucks.get(i);
+            boolean available = truck.getAvailable() == null || truck.getAvailable();
+            double[] position = CityCoordinates.lookup(truck.getLocation());
+            if (position != null && available) {
+                truckSpatialIndex.update(ids[i], position[0], position[1]);
+            }
+            availabilityBroadcaster.publish(new TruckAvailabilityEvent(TruckAvailabilityEvent.UPDATED, ids[i],
+                    available, truck.getLocation().trim(), null, null), owner);
+        }
+    }
+
+    // Rows are never written without an owner
+    private long ownerId(String username) {
+        return userRepository.findByEmail(username)
+                .map(User::getId)
+                .orElseThrow(() -> new AccessDeniedException("No account found for the authenticated user"));
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<T> rows, long[] ids);
+    }
+
+    /**
+     * Running state of one import: the current chunk, the ids written so far, and the rejected rows
+     */
+    private final class Import<T> {
+        final String sequence;
+        final ChunkWriter<T> writer;
+        final ChunkWriter<T> afterCommit;
+        final List<T> chunk = new ArrayList<>(batchSize);
+        final List<Long> chunkRows = new ArrayList<>(batchSize);
+        final List<Long> importedIds = new ArrayList<>();
+        final List<BulkImportErrorDTO> errors = new ArrayList<>();
+        long received;
+        long failed;
+
+        Import(String sequence, ChunkWriter<T> writer, ChunkWriter<T> afterCommit) {
+            this.sequence = sequence;
+            this.writer = writer;
+            this.afterCommit = afterCommit;
+        }
+
+        // Called when another row is available; rows past the limit are not read
+        boolean atRowLimit() {
+            if (received < maxRows) {
+                return false;
+            }
+            reject(received + 1, "Row limit of " + maxRows + " reached; remaining rows were not read");
+            return true;
+        }
+
+        void accept(long row, T parsed) {
+            Set<ConstraintViolation<T>> violations = validator.validate(parsed);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            chunk.add(parsed);
+            chunkRows.add(row);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportErrorDTO(row, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            long[] ids = idAllocator.allocate(sequence, chunk.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> writer.write(chunk, ids));
+                afterCommit.write(chunk, ids);
+                for (long id : ids) {
+                    importedIds.add(id);
+                }
+            } catch (DataAccessException batchFailure) {
+                // Find the offending rows: each is retried on its own
+                for (int i = 0; i < chunk.size(); i++) {
+                    List<T> single = List.of(chunk.get(i));
+                    long[] singleId = {ids[i]};
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> writer.write(single, singleId));
+                        afterCommit.write(single, singleId);
+                        importedIds.add(ids[i]);
+                    } catch (DataAccessException ex) {
+                        logger.warn("Bulk import row {} rejected by the database: {}", chunkRows.get(i),
+                                NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                        reject(chunkRows.get(i), "Rejected by the database (e.g. a duplicate or out-of-range value)");
+                    }
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+}
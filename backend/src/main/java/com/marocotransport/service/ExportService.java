@@ -0,0 +1,131 @@
+package com.marocotransport.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marocotransport.entity.User;
+import com.marocotransport.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables as newline-delimited JSON in constant memory.
+ *
+ * Rows are read through a server-side cursor (JPA stream or JDBC fetch size) and written straight to the
+ * response as they arrive; a slow consumer simply blocks the writer, which in turn stops fetching.
+ */
+@Service
+public class ExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY = 1000;
+
+    // Reviewed column lists: columns added to these tables later (telemetry, internal state) are not
+    // exported until they are listed here, and every line has the same fields in the same order
+    private static final Map<String, List<String>> EXPORTED_COLUMNS = Map.of(
+            "jobs", List.of("id", "origin", "destination", "weight", "status", "shipper_id", "created_at"),
+            "trucks", List.of("id", "type", "location", "capacity", "fuel_type", "available", "carrier_id",
+                    "created_at"));
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(UserRepository userRepository, EntityManager entityManager,
+                         DataSource dataSource, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every user as one JSON line (password hashes are never exported)
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = createGenerator(out);
+             Stream<User> users = userRepository.streamAllBy()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", user.getId());
+                generator.writeStringField("email", user.getEmail());
+                generator.writeStringField("firstName", user.getFirstName());
+                generator.writeStringField("lastName", user.getLastName());
+                generator.writeStringField("role", user.getRole());
+                generator.writeBooleanField("active", user.isActive());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                // Keep the persistence context from growing with the export
+                entityManager.detach(user);
+                if (++count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Write every row of the jobs or trucks table as one JSON line, keyed by column name (only the columns
+     * listed for the table are exported)
+     */
+    @Transactional(readOnly = true)
+    public long exportTable(String table, OutputStream out) throws IOException {
+        List<String> columns = EXPORTED_COLUMNS.get(table);
+        if (columns == null) {
+            throw new IllegalArgumentException("Table cannot be exported: " + table);
+        }
+        long[] count = {0};
+        try (JsonGenerator generator = createGenerator(out)) {
+            streamingJdbcTemplate.query("SELECT " + String.join(", ", columns) + " FROM " + table + " ORDER BY id",
+                    rs -> {
+                try {
+                    generator.writeStartObject();
+                    for (int column = 0; column < columns.size(); column++) {
+                        generator.writeFieldName(columns.get(column));
+                        Object value = rs.getObject(column + 1);
+                        if (value instanceof Timestamp) {
+                            generator.writeString(((Timestamp) value).toLocalDateTime().toString());
+                        } else {
+                            generator.writeObject(value);
+                        }
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return count[0];
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // The servlet stream belongs to the container
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+}
@@ -0,0 +1,174 @@
+package com.marocotransport.service;
+
+import com.maroctransit.auth.dto.JobCandidateDTO;
+import com.maroctransit.auth.dto.TourPlanDTO;
+import com.maroctransit.auth.dto.TourStopDTO;
+import com.maroctransit.auth.dto.TruckDTO;
+import com.maroctransit.auth.service.TruckService;
+import com.marocotransport.matching.CityCoordinates;
+import com.marocotransport.matching.CityDistanceMatrix;
+import com.marocotransport.matching.TourPlanner;
+import com.marocotransport.repository.MatchingCandidateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Optional;
+
+/**
+ * Multi-stop tour planning for a single truck: which of the candidate jobs it can carry in one trip, and in
+ * what order to pick up and deliver them.
+ *
+ * The truck and jobs are loaded in a short read-only transaction; the search itself runs outside any
+ * transaction, so a long planning budget does not hold a database connection.
+ */
+@Service
+public class TourPlanningService {
+
+    private final MatchingCandidateRepository matchingCandidateRepository;
+    private final TruckService truckService;
+    private final TourPlanner tourPlanner;
+    private final CityDistanceMatrix cityDistanceMatrix;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long defaultBudgetMillis;
+    private final long maxBudgetMillis;
+
+    public TourPlanningService(MatchingCandidateRepository matchingCandidateRepository,
+                               TruckService truckService, TourPlanner tourPlanner,
+                               CityDistanceMatrix cityDistanceMatrix,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${matching.tours.default-budget-ms:200}") long defaultBudgetMillis,
+                               @Value("${matching.tours.max-budget-ms:2000}") long maxBudgetMillis) {
+        this.matchingCandidateRepository = matchingCandidateRepository;
+        this.truckService = truckService;
+        this.tourPlanner = tourPlanner;
+        this.cityDistanceMatrix = cityDistanceMatrix;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.defaultBudgetMillis = defaultBudgetMillis;
+        this.maxBudgetMillis = maxBudgetMillis;
+    }
+
+    /**
+     * Plan a tour for a truck over the given jobs.
+     *
+     * Only open jobs can be planned (see {@link MatchingCandidateRepository}); jobs that have an unknown pickup
+     * or delivery city, or do not fit, are reported as unserved. The jobs are loaded with batched id queries.
+     * The local search stops after the requested budget (or the configured default), capped by the configured
+     * maximum.
+     *
+     * @return empty if the truck does not exist
+     * @throws IllegalArgumentException if a job does not exist or is not open, or the truck's location is not a
+     *         known city
+     * @throws com.marocotransport.matching.TourPlannerBusyException if too many tours are being planned
+     */
+    public Optional<TourPlanDTO> planTour(Long truckId, List<Long> jobIds, Long budgetMillis) {
+        long start = System.nanoTime();
+
+        Candidates candidates = readOnlyTransaction.execute(status -> load(truckId, jobIds));
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        TruckDTO truck = candidates.truck;
+        List<JobCandidateDTO> jobs = candidates.jobs;
+        List<Long> unserved = candidates.unserved;
+        int startCity = cityDistanceMatrix.indexOf(truck.getLocation());
+        if (startCity < 0) {
+            throw new IllegalArgumentException("Truck location is not a known city: " + truck.getLocation());
+        }
+        double capacity = truck.getCapacity() != null ? truck.getCapacity().doubleValue() : Double.MAX_VALUE;
+
+        int n = jobs.size();
+        int[] pickupCity = new int[n];
+        int[] deliveryCity = new int[n];
+        double[] weight = new double[n];
+        for (int i = 0; i < n; i++) {
+            JobCandidateDTO job = jobs.get(i);
+            pickupCity[i] = cityDistanceMatrix.indexOf(job.getOrigin());
+            deliveryCity[i] = cityDistanceMatrix.indexOf(job.getDestination());
+            weight[i] = job.getWeight() != null ? job.getWeight() : 0.0;
+        }
+
+        long budget = Math.min(budgetMillis != null ? budgetMillis : defaultBudgetMillis, maxBudgetMillis);
+        TourPlanner.Plan plan = tourPlanner.plan(startCity, capacity, pickupCity, deliveryCity, weight, budget);
+
+        List<String> cityNames = CityCoordinates.canonicalNames();
+        List<TourStopDTO> stops = new ArrayList<>(plan.getStops().length);
+        boolean[] served = new boolean[n];
+        double load = 0.0;
+        double distance = 0.0;
+        double minutes = 0.0;
+        int city = startCity;
+        for (int stop : plan.getStops()) {
+            int i = TourPlanner.Plan.jobOf(stop);
+            boolean pickup = TourPlanner.Plan.isPickup(stop);
+            int next = pickup ? pickupCity[i] : deliveryCity[i];
+            distance += cityDistanceMatrix.distanceKm(city, next);
+            minutes += cityDistanceMatrix.etaMinutes(city, next);
+            load += pickup ? weight[i] : -weight[i];
+            city = next;
+            served[i] = true;
+            stops.add(new TourStopDTO(jobs.get(i).getId(),
+                    pickup ? TourStopDTO.StopType.PICKUP : TourStopDTO.StopType.DELIVERY,
+                    cityNames.get(next), load, distance));
+        }
+        for (int i = 0; i < n; i++) {
+            if (!served[i]) {
+                unserved.add(jobs.get(i).getId());
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return Optional.of(new TourPlanDTO(truck.getId(), stops, unserved, distance, minutes, elapsedMillis));
+    }
+
+    // Null if the truck does not exist
+    private Candidates load(Long truckId, List<Long> jobIds) {
+        Optional<TruckDTO> truck = truckService.getTruckById(truckId);
+        if (truck.isEmpty()) {
+            return null;
+        }
+        Candidates candidates = new Candidates(truck.get());
+        Set<Long> requested = new LinkedHashSet<>(jobIds);
+        Set<Long> found = new HashSet<>();
+        for (JobCandidateDTO job : matchingCandidateRepository.findJobs(requested, null)) {
+            found.add(job.getId());
+            if (cityDistanceMatrix.indexOf(job.getOrigin()) >= 0
+                    && cityDistanceMatrix.indexOf(job.getDestination()) >= 0) {
+                candidates.jobs.add(job);
+            } else {
+                candidates.unserved.add(job.getId());
+            }
+        }
+        // Assigned, completed or cancelled jobs are not planned, just like trucks the caller may not access
+        List<Long> notOpen = new ArrayList<>();
+        for (Long jobId : requested) {
+            if (!found.contains(jobId)) {
+                notOpen.add(jobId);
+            }
+        }
+        if (!notOpen.isEmpty()) {
+            throw new IllegalArgumentException("Jobs not found or not open: " + notOpen);
+        }
+        return candidates;
+    }
+
+    /**
+     * The truck, the jobs that can be planned, and the ids of those that cannot
+     */
+    private static final class Candidates {
+        final TruckDTO truck;
+        final List<JobCandidateDTO> jobs = new ArrayList<>();
+        final List<Long> unserved = new ArrayList<>();
+
+        Candidates(TruckDTO truck) {
+            this.truck = truck;
+        }
+    }
+}
@@ -2,34 +2,136 @@ package com.marocotransport.service;
 
 import com.marocotransport.entity.User;
 import com.marocotransport.repository.UserRepository;
+import com.marocotransport.security.SignupUniquenessIndex;
+import com.marocotransport.security.TokenRevocationService;
+import com.marocotransport.security.VerifiedTokenCache;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
-public class UserService {
+public class UserService implements UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private SignupUniquenessIndex signupUniquenessIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    // Not read-only: authentication and account checks must see the primary, not a lagging replica
+    @Transactional
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    @Transactional
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    /**
+     * Create or update a user. Sessions are revoked once the change commits if the user was deactivated,
+     * renamed or given another role, since tokens and cached authentications carry the old identity; an
+     * updated user is also evicted from the second-level cache then.
+     */
+    @Transactional
     public User saveUser(User user) {
-        return userRepository.save(user);
+        // Read before save() merges the new values into the managed entity
+        Optional<User> existing = user.getId() != null ? userRepository.findById(user.getId()) : Optional.empty();
+        String previousEmail = existing.map(User::getEmail).orElse(null);
+        String previousRole = existing.map(User::getRole).orElse(null);
+        User saved = userRepository.save(user);
+        if (existing.isPresent()) {
+            Long id = saved.getId();
+            afterCommit(() -> evictCachedUser(id));
+        }
+        if (!Objects.equals(previousEmail, saved.getEmail())) {
+            // New user or changed address; re-saving the same address must not inflate the filter's count
+            signupUniquenessIndex.recordAdded(saved.getEmail());
+        }
+        if (existing.isPresent() && (!Objects.equals(previousEmail, saved.getEmail())
+                || !Objects.equals(previousRole, saved.getRole()))) {
+            afterCommit(() -> revokeSessions(previousEmail));
+        }
+        if (!saved.isActive()) {
+            String email = saved.getEmail();
+            afterCommit(() -> revokeSessions(email));
+        }
+        return saved;
     }
 
+    /**
+     * Delete a user; their sessions are revoked and the cached entity evicted once the delete commits, so a
+     * request racing with it cannot cache the user again in between
+     */
+    @Transactional
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(user -> {
+            String email = user.getEmail();
+            afterCommit(() -> {
+                evictCachedUser(id);
+                revokeSessions(email);
+            });
+        });
         userRepository.deleteById(id);
+        afterCommit(signupUniquenessIndex::recordDeleted);
+    }
+
+    /**
+     * Store a re-hashed password after a successful login (called when the cost factor has changed)
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByEmail(user.getUsername()).ifPresent(entity -> entity.setPassword(newPassword));
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    // Hibernate already updates the region on its own writes; evicting as well makes the next lookup read
+    // the committed row from the primary whatever wrote it
+    private void evictCachedUser(Long id) {
+        entityManagerFactory.getCache().evict(User.class, id);
+    }
+
+    private void revokeSessions(String username) {
+        tokenRevocationService.revokeUser(username);
+        verifiedTokenCache.invalidateUser(username);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 } 
\ No newline at end of file
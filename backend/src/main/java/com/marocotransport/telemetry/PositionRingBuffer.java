@@ -0,0 +1,96 @@
+package com.marocotransport.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring of position reports.
+ *
+ * Reports are stored in parallel primitive arrays. Producers claim a sequence with a CAS on the tail, fill
+ * the slot and then publish it by storing the sequence into the slot's marker; the single consumer reads
+ * slots in order while their marker matches. When the ring is full, {@link #offer} fails instead of blocking.
+ */
+public class PositionRingBuffer {
+
+    /**
+     * Receives drained reports without allocating per report
+     */
+    public interface PositionSink {
+        void accept(long truckId, double latitude, double longitude, long recordedAt);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final long[] truckIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] recordedAt;
+    private final AtomicLongArray published;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public PositionRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.truckIds = new long[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.recordedAt = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Append a report; returns false (dropping it) when the ring is full
+     */
+    public boolean offer(long truckId, double latitude, double longitude, long timestamp) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & mask);
+        truckIds[slot] = truckId;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        recordedAt[slot] = timestamp;
+        published.lazySet(slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hand every published report to the sink, oldest first. Must only be called from one thread at a time.
+     *
+     * @return number of reports drained
+     */
+    public int drain(PositionSink sink) {
+        long current = head;
+        int drained = 0;
+        while (true) {
+            int slot = (int) (current & mask);
+            if (published.get(slot) != current) {
+                break;
+            }
+            sink.accept(truckIds[slot], latitudes[slot], longitudes[slot], recordedAt[slot]);
+            current++;
+            drained++;
+        }
+        // Releases the drained slots to producers
+        head = current;
+        return drained;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
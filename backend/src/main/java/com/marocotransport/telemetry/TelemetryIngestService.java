@@ -0,0 +1,237 @@
+package com.marocotransport.telemetry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maroctransit.auth.dto.PositionReportDTO;
+import com.maroctransit.auth.dto.TruckAvailabilityEvent;
+import com.marocotransport.cache.DetailCache;
+import com.marocotransport.matching.TruckSpatialIndex;
+import com.marocotransport.realtime.TruckAvailabilityBroadcaster;
+import com.marocotransport.repository.TruckPositionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * GPS telemetry pipeline: request threads only append reports to a lock-free ring buffer; a single
+ * scheduled writer drains it, keeps the latest position per truck, moves trucks in the matching index,
+ * publishes tracking events, and periodically writes the positions that changed in one JDBC batch.
+ *
+ * A truck that reports every few seconds therefore costs one database row update per flush interval rather
+ * than one per ping. Reports that arrive while the ring buffer is full are dropped and counted; the next
+ * ping from the same truck supersedes them anyway.
+ *
+ * Callers only queue reports for trucks that exist (see TelemetryController); the latest-position map is
+ * still bounded in size and age, and deleted trucks are dropped from it on the next drain.
+ */
+@Component
+public class TelemetryIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryIngestService.class);
+
+    private final PositionRingBuffer buffer;
+    private final TruckSpatialIndex truckSpatialIndex;
+    private final TruckAvailabilityBroadcaster availabilityBroadcaster;
+    private final TruckPositionRepository truckPositionRepository;
+    private final DetailCache detailCache;
+    private final long flushIntervalMillis;
+    private final int flushBatchSize;
+
+    // Latest position per truck, readable from any thread
+    private final Cache<Long, TruckPosition> latest;
+
+    // Deleted trucks, dropped from the writer's state on its next drain
+    private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+
+    // Held by the writer for each drain; shutdown takes it to wait for a drain in progress
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private volatile boolean stopped;
+
+    // Owned by the writer: positions changed since the last flush, and since the last drain
+    private final Map<Long, TruckPosition> unflushed = new HashMap<>();
+    private final Map<Long, TruckPosition> moved = new LinkedHashMap<>();
+
+    private final PositionRingBuffer.PositionSink coalescer = this::coalesce;
+
+    private long lastFlush = System.currentTimeMillis();
+    private long droppedReports;
+
+    public TelemetryIngestService(TruckSpatialIndex truckSpatialIndex,
+                                  TruckAvailabilityBroadcaster availabilityBroadcaster,
+                                  TruckPositionRepository truckPositionRepository,
+                                  DetailCache detailCache,
+                                  @Value("${telemetry.buffer-capacity:65536}") int bufferCapacity,
+                                  @Value("${telemetry.flush-interval-ms:5000}") long flushIntervalMillis,
+                                  @Value("${telemetry.flush-batch-size:500}") int flushBatchSize,
+                                  @Value("${telemetry.latest.max-size:100000}") long latestMaxSize,
+                                  @Value("${telemetry.latest.ttl-minutes:60}") long latestTtlMinutes) {
+        this.truckSpatialIndex = truckSpatialIndex;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.truckPositionRepository = truckPositionRepository;
+        this.detailCache = detailCache;
+        this.buffer = new PositionRingBuffer(bufferCapacity);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushBatchSize = flushBatchSize;
+        this.latest = Caffeine.newBuilder()
+                .maximumSize(latestMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(latestTtlMinutes))
+                .build();
+    }
+
+    /**
+     * Queue a batch of reports without blocking
+     *
+     * @return number of reports accepted; the rest were dropped because the buffer is full
+     */
+    public int ingest(List<PositionReportDTO> reports) {
+        long now = System.currentTimeMillis();
+        int accepted = 0;
+        for (PositionReportDTO report : reports) {
+            long recordedAt = report.getRecordedAt() != null ? Math.min(report.getRecordedAt(), now) : now;
+            if (buffer.offer(report.getTruckId(), report.getLatitude(), report.getLongitude(), recordedAt)) {
+                accepted++;
+            }
+        }
+        if (accepted < reports.size()) {
+            synchronized (this) {
+                droppedReports += reports.size() - accepted;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Latest known position of a truck, or null if it has not reported recently
+     */
+    public TruckPosition getLatestPosition(Long truckId) {
+        return latest.getIfPresent(truckId);
+    }
+
+    /**
+     * Forget a deleted truck; positions still queued for it are discarded rather than written
+     */
+    public void removeTruck(Long truckId) {
+        removed.add(truckId);
+        latest.invalidate(truckId);
+    }
+
+    /**
+     * Drain the buffer, apply the coalesced moves and flush to the database when due. Spring never runs
+     * this concurrently with itself, which makes it the ring buffer's single consumer.
+     */
+    @Scheduled(fixedDelayString = "${telemetry.drain-interval-ms:200}")
+    public void drain() {
+        writerLock.lock();
+        try {
+            if (!stopped) {
+                drainBuffer();
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private void drainBuffer() {
+        buffer.drain(coalescer);
+        discardRemoved();
+
+        if (!moved.isEmpty()) {
+            for (TruckPosition position : moved.values()) {
+                Long truckId = position.getTruckId();
+                truckSpatialIndex.move(truckId, position.getLatitude(), position.getLongitude());
+                availabilityBroadcaster.publish(TruckAvailabilityEvent.moved(
+                        truckId, position.getLatitude(), position.getLongitude()));
+            }
+            moved.clear();
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastFlush >= flushIntervalMillis) {
+            flush();
+            lastFlush = now;
+        }
+    }
+
+    private void discardRemoved() {
+        if (removed.isEmpty()) {
+            return;
+        }
+        for (Iterator<Long> it = removed.iterator(); it.hasNext(); ) {
+            Long truckId = it.next();
+            it.remove();
+            latest.invalidate(truckId);
+            unflushed.remove(truckId);
+            moved.remove(truckId);
+        }
+    }
+
+    private void coalesce(long truckId, double latitude, double longitude, long recordedAt) {
+        TruckPosition current = latest.getIfPresent(truckId);
+        if (current != null && current.getRecordedAt() > recordedAt) {
+            return;
+        }
+        TruckPosition position = new TruckPosition(truckId, latitude, longitude, recordedAt);
+        latest.put(truckId, position);
+        unflushed.put(truckId, position);
+        moved.put(truckId, position);
+    }
+
+    private void flush() {
+        if (unflushed.isEmpty()) {
+            return;
+        }
+        List<TruckPosition> batch = new ArrayList<>(unflushed.values());
+        try {
+            truckPositionRepository.updatePositions(batch, flushBatchSize);
+            unflushed.clear();
+            // Cached truck details carry the stored position
+            for (TruckPosition position : batch) {
+                detailCache.invalidateTruck(position.getTruckId());
+            }
+            // Recommendations are not marked here: movement is picked up by their maximum age
+        } catch (RuntimeException ex) {
+            // Keep the positions; they are retried (or superseded) on the next flush
+            logger.error("Could not flush {} truck positions", batch.size(), ex);
+        }
+
+        long dropped;
+        synchronized (this) {
+            dropped = droppedReports;
+            droppedReports = 0;
+        }
+        if (dropped > 0) {
+            logger.warn("Dropped {} position reports because the telemetry buffer was full", dropped);
+        }
+    }
+
+    /**
+     * Stop scheduled drains, wait for one in progress, then write out whatever is still buffered
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        writerLock.lock();
+        try {
+            buffer.drain(coalescer);
+            discardRemoved();
+            moved.clear();
+            flush();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+}
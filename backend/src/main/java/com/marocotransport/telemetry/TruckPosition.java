@@ -0,0 +1,35 @@
+package com.marocotransport.telemetry;
+
+/**
+ * Latest known GPS position of a truck
+ */
+public final class TruckPosition {
+
+    private final long truckId;
+    private final double latitude;
+    private final double longitude;
+    private final long recordedAt;
+
+    public TruckPosition(long truckId, double latitude, double longitude, long recordedAt) {
+        this.truckId = truckId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.recordedAt = recordedAt;
+    }
+
+    public long getTruckId() {
+        return truckId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public long getRecordedAt() {
+        return recordedAt;
+    }
+}
@@ -0,0 +1,73 @@
+package com.marocotransport.util;
+
+import com.maroctransit.auth.dto.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor over (createdAt, id), newest first. Encoded as URL-safe base64 so clients treat it as
+ * a token rather than something to construct.
+ */
+public final class KeysetCursor {
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public KeysetCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Timestamp getCreatedAtTimestamp() {
+        return Timestamp.valueOf(createdAt);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode()}; null or blank means "first page"
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    /**
+     * Turn a query result fetched with LIMIT size + 1 into a page, using the extra row to detect a next page
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int size, Function<T, KeysetCursor> keyOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, keyOf.apply(items.get(size - 1)).encode());
+    }
+}
@@ -0,0 +1,14 @@
+-- Composite indexes backing keyset (created_at, id) pagination of job and truck listings.
+-- Each filter column leads, followed by the sort key, so a page is a single index range scan
+-- regardless of how deep the cursor is.
+
+-- Jobs: status / origin / destination filters
+CREATE INDEX IF NOT EXISTS idx_jobs_created_id ON jobs(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_jobs_status_created_id ON jobs(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_jobs_origin_status_created_id ON jobs(origin, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_jobs_destination_status_created_id ON jobs(destination, status, created_at DESC, id DESC);
+
+-- Trucks: type / location / available filters
+CREATE INDEX IF NOT EXISTS idx_trucks_created_id ON trucks(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_trucks_available_location_created_id ON trucks(available, location, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_trucks_type_available_created_id ON trucks(type, available, created_at DESC, id DESC);
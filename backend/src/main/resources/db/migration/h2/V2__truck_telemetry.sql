@@ -0,0 +1,6 @@
+-- Last known GPS position of each truck, written in batches by the telemetry ingest pipeline.
+-- position_recorded_at is the device timestamp of the stored fix, so late batches cannot move a truck back.
+
+ALTER TABLE trucks ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE trucks ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+ALTER TABLE trucks ADD COLUMN IF NOT EXISTS position_recorded_at TIMESTAMP;
@@ -0,0 +1,14 @@
+-- ID sequences for jobs and trucks, so bulk imports can reserve ids in blocks and insert with JDBC batches.
+-- Allocation is pooled-lo: each value handed out by the sequence is the first id of a block of 50
+-- (INCREMENT BY must match ids.sequence-increment). V5__align_id_sequences.sql moves the sequences past
+-- ids already in the tables.
+
+CREATE SEQUENCE IF NOT EXISTS jobs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS trucks_seq START WITH 1 INCREMENT BY 50;
+
+-- Single-row inserts that omit the id draw from the same sequences, so they never collide with imported
+-- rows.
+ALTER TABLE jobs ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE jobs ALTER COLUMN id SET DEFAULT NEXT VALUE FOR jobs_seq;
+ALTER TABLE trucks ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE trucks ALTER COLUMN id SET DEFAULT NEXT VALUE FOR trucks_seq;
@@ -0,0 +1,7 @@
+-- Start each id sequence after the highest id already in its table, so rows created before the sequences
+-- existed are never handed out again. Any value past MAX(id) works as the next pooled-lo block start.
+
+ALTER SEQUENCE jobs_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM jobs);
+ALTER SEQUENCE trucks_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM trucks);
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users);
+ALTER SEQUENCE routes_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM routes);
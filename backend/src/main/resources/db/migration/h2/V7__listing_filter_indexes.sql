@@ -0,0 +1,16 @@
+-- Keyset listing indexes for the filter combinations V1 did not cover, so that every combination of
+-- job filters (status, origin, destination) and truck filters (type, location, available) is a single
+-- index range scan in (created_at, id) order. Equality columns lead, the sort key follows.
+
+-- Jobs
+CREATE INDEX IF NOT EXISTS idx_jobs_origin_created_id ON jobs(origin, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_jobs_destination_created_id ON jobs(destination, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_jobs_origin_destination_created_id ON jobs(origin, destination, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_jobs_origin_destination_status_created_id ON jobs(origin, destination, status, created_at DESC, id DESC);
+
+-- Trucks
+CREATE INDEX IF NOT EXISTS idx_trucks_available_created_id ON trucks(available, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_trucks_type_created_id ON trucks(type, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_trucks_location_created_id ON trucks(location, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_trucks_type_location_created_id ON trucks(type, location, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_trucks_type_available_location_created_id ON trucks(type, available, location, created_at DESC, id DESC);
@@ -0,0 +1,3 @@
+-- Keyset listing index for a carrier's own fleet. A carrier's trucks are few, so the type / location /
+-- available filters are applied while scanning this one (carrier_id, created_at, id) range.
+CREATE INDEX IF NOT EXISTS idx_trucks_carrier_created_id ON trucks(carrier_id, created_at DESC, id DESC);
@@ -0,0 +1,12 @@
+-- Move users and routes from IDENTITY columns to pooled sequences (allocationSize 50 on the entities), so
+-- Hibernate can batch their inserts. Values are pooled-lo block starts, like jobs_seq and trucks_seq in
+-- V3__bulk_import_sequences.sql. Existing rows keep their ids; V5__align_id_sequences.sql moves each
+-- sequence past them.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS routes_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE routes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE routes ALTER COLUMN id SET DEFAULT nextval('routes_seq');
@@ -0,0 +1,7 @@
+-- Start each id sequence after the highest id already in its table, so rows created before the sequences
+-- existed are never handed out again. Any value past MAX(id) works as the next pooled-lo block start.
+
+SELECT setval('jobs_seq', COALESCE((SELECT MAX(id) FROM jobs), 0) + 1, false);
+SELECT setval('trucks_seq', COALESCE((SELECT MAX(id) FROM trucks), 0) + 1, false);
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('routes_seq', COALESCE((SELECT MAX(id) FROM routes), 0) + 1, false);
@@ -0,0 +1,14 @@
+-- Latest batch assignment of each job. A carrier records one decision (accept or decline) per assignment;
+-- re-running the batch for a job replaces its assignment and opens a new decision.
+
+CREATE TABLE IF NOT EXISTS job_assignments (
+    job_id BIGINT PRIMARY KEY,
+    truck_id BIGINT NOT NULL,
+    distance_km DOUBLE PRECISION NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    assigned_at TIMESTAMP NOT NULL,
+    accepted BOOLEAN,
+    decided_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_job_assignments_truck ON job_assignments(truck_id);
@@ -0,0 +1,150 @@
+package com.marocotransport.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maroctransit.auth.dto.JobDTO;
+import com.maroctransit.auth.dto.TruckDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DetailCacheTest {
+
+    // JSON form of each DTO, standing in for Jackson
+    private final Map<Object, String> json = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = mock(ObjectMapper.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DetailCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(objectMapper.writeValueAsBytes(any()))
+                .thenAnswer(invocation -> json.get(invocation.getArgument(0)).getBytes(StandardCharsets.UTF_8));
+        cache = newCache();
+    }
+
+    @Test
+    void hitIsServedWithoutLoadingAgain() {
+        JobDTO job = job("{\"id\":1,\"status\":\"OPEN\"}");
+        AtomicInteger loads = new AtomicInteger();
+
+        DetailCache.Detail<JobDTO> first = cache.getJob(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(job);
+        }).orElseThrow();
+        DetailCache.Detail<JobDTO> second = cache.getJob(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(job);
+        }).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertSame(job, second.getValue());
+        assertEquals(first.getEtag(), second.getEtag());
+    }
+
+    @Test
+    void missingEntityIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertFalse(cache.getTruck(7L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isPresent());
+        assertFalse(cache.getTruck(7L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isPresent());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void etagIsAQuotedHashOfTheRepresentation() {
+        String etag = cache.getJob(1L, id -> Optional.of(job("{\"id\":1,\"status\":\"OPEN\"}")))
+                .orElseThrow().getEtag();
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""), etag);
+        // Another instance (or a different DTO object with the same JSON) produces the same ETag
+        String elsewhere = newCache().getJob(1L, id -> Optional.of(job("{\"id\":1,\"status\":\"OPEN\"}")))
+                .orElseThrow().getEtag();
+        assertEquals(etag, elsewhere);
+    }
+
+    @Test
+    void invalidatedEntryIsReloadedWithANewEtag() {
+        String before = cache.getTruck(3L, id -> Optional.of(truck("{\"id\":3,\"available\":true}")))
+                .orElseThrow().getEtag();
+
+        cache.invalidateTruck(3L);
+        String after = cache.getTruck(3L, id -> Optional.of(truck("{\"id\":3,\"available\":false}")))
+                .orElseThrow().getEtag();
+
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void jobsAndTrucksAreCachedSeparately() {
+        cache.getJob(1L, id -> Optional.of(job("{\"id\":1}")));
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.getTruck(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(truck("{\"id\":1}"));
+        });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void ifNoneMatchMatching() {
+        String etag = "\"abc\"";
+
+        assertFalse(DetailCache.matches(null, etag));
+        assertTrue(DetailCache.matches("\"abc\"", etag));
+        assertTrue(DetailCache.matches("W/\"abc\"", etag));
+        assertTrue(DetailCache.matches("\"xyz\", \"abc\"", etag));
+        assertTrue(DetailCache.matches("*", etag));
+        assertFalse(DetailCache.matches("\"xyz\"", etag));
+        assertFalse(DetailCache.matches("abc", etag));
+    }
+
+    @Test
+    void hitRatioIsPublished() {
+        cache.getJob(1L, id -> Optional.of(job("{\"id\":1}")));
+        cache.getJob(1L, id -> Optional.of(job("{\"id\":1}")));
+
+        double ratio = meterRegistry.get("cache.detail.hit.ratio").tag("cache", "jobDetails").gauge().value();
+        assertEquals(0.5, ratio, 0.001);
+    }
+
+    private DetailCache newCache() {
+        return new DetailCache(objectMapper, meterRegistry, 100, 60);
+    }
+
+    private JobDTO job(String representation) {
+        JobDTO job = mock(JobDTO.class);
+        json.put(job, representation);
+        return job;
+    }
+
+    private TruckDTO truck(String representation) {
+        TruckDTO truck = mock(TruckDTO.class);
+        json.put(truck, representation);
+        return truck;
+    }
+}
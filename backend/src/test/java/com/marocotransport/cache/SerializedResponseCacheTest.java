@@ -0,0 +1,126 @@
+package com.marocotransport.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.maroctransit.auth.dto.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerializedResponseCacheTest {
+
+    // Configured like the application's mapper: java.time values written as ISO strings
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    @Test
+    void cachedBodyIsTheSuccessEnvelope() throws IOException {
+        SerializedResponseCache cache = newCache(true);
+        LocalDateTime before = LocalDateTime.now();
+
+        MockHttpServletResponse response = write(cache, "board", Map.of("id", 1, "origin", "Casablanca"));
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertTrue(body.get("success").asBoolean());
+        assertEquals("Success", body.get("message").asText());
+        assertEquals(1, body.get("data").get("id").asInt());
+        assertEquals("Casablanca", body.get("data").get("origin").asText());
+        assertFalse(LocalDateTime.parse(body.get("timestamp").asText()).isBefore(before));
+    }
+
+    @Test
+    void hitDoesNotSerializeTheDataAgain() throws IOException {
+        SerializedResponseCache cache = newCache(true);
+
+        write(cache, List.of("OPEN", 0), List.of("a"));
+        write(cache, List.of("OPEN", 0), List.of("a"));
+        write(cache, Arrays.asList(null, 0), List.of("b"));
+        write(cache, Arrays.asList(null, 0), List.of("b"));
+
+        assertEquals(2, serializations.get());
+    }
+
+    @Test
+    void hitCarriesAFreshTimestamp() throws Exception {
+        SerializedResponseCache cache = newCache(true);
+
+        JsonNode first = objectMapper.readTree(write(cache, "board", List.of("a")).getContentAsByteArray());
+        Thread.sleep(5);
+        MockHttpServletResponse hit = write(cache, "board", List.of("a"));
+        JsonNode second = objectMapper.readTree(hit.getContentAsByteArray());
+
+        assertTrue(LocalDateTime.parse(second.get("timestamp").asText())
+                .isAfter(LocalDateTime.parse(first.get("timestamp").asText())));
+        assertEquals(first.get("data"), second.get("data"));
+        assertEquals(hit.getContentAsByteArray().length, hit.getContentLength());
+    }
+
+    @Test
+    void hitCanReplayTheOriginalBytes() throws Exception {
+        SerializedResponseCache cache = newCache(false);
+
+        byte[] first = write(cache, "board", List.of("a")).getContentAsByteArray();
+        Thread.sleep(5);
+        byte[] second = write(cache, "board", List.of("a")).getContentAsByteArray();
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void invalidateAllForcesASerialization() throws IOException {
+        SerializedResponseCache cache = newCache(true);
+        write(cache, "board", List.of("a"));
+
+        cache.invalidateAll();
+        JsonNode body = objectMapper.readTree(write(cache, "board", List.of("b")).getContentAsByteArray());
+
+        assertEquals(2, serializations.get());
+        assertEquals("b", body.get("data").get(0).asText());
+    }
+
+    @Test
+    void oneOffResponsesAreNotCached() throws IOException {
+        SerializedResponseCache cache = newCache(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        cache.write(response, HttpStatus.BAD_REQUEST, ApiResponse.error("Invalid cursor"));
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertFalse(body.get("success").asBoolean());
+        assertEquals("Invalid cursor", body.get("message").asText());
+    }
+
+    private SerializedResponseCache newCache(boolean freshTimestamp) throws IOException {
+        return new SerializedResponseCache(objectMapper, new SimpleMeterRegistry(), 100, 60, freshTimestamp);
+    }
+
+    private MockHttpServletResponse write(SerializedResponseCache cache, Object key, Object data) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.writeSuccess(response, key, () -> {
+            serializations.incrementAndGet();
+            return data;
+        });
+        return response;
+    }
+}
@@ -0,0 +1,83 @@
+package com.marocotransport.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("primary");
+        replica = node("replica");
+        DataSource dataSource = new ReplicaRoutingDataSourceConfig().dataSource(primary, replica);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionUsesTheReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransactionUsesThePrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void statementsOutsideATransactionUseThePrimary() {
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void writesLandOnThePrimary() {
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO node (name) VALUES ('written')"));
+
+        assertEquals(1, new JdbcTemplate(primary).queryForObject(
+                "SELECT COUNT(*) FROM node WHERE name = 'written'", Integer.class));
+        assertEquals(0, new JdbcTemplate(replica).queryForObject(
+                "SELECT COUNT(*) FROM node WHERE name = 'written'", Integer.class));
+    }
+
+    private String currentNode() {
+        return jdbc.queryForObject("SELECT name FROM node ORDER BY name LIMIT 1", String.class);
+    }
+
+    // Each pool answers with its own name, so a query shows which one served it
+    private static EmbeddedDatabase node(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(32) NOT NULL)");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return database;
+    }
+}
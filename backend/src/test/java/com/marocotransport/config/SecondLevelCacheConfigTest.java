@@ -0,0 +1,93 @@
+package com.marocotransport.config;
+
+import com.marocotransport.entity.User;
+import jakarta.persistence.Cacheable;
+import org.hibernate.annotations.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecondLevelCacheConfigTest {
+
+    private final SecondLevelCacheConfig config = new SecondLevelCacheConfig();
+    private final List<CacheManager> managers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        managers.forEach(CacheManager::close);
+    }
+
+    @Test
+    void everyDeclaredRegionIsCreated() {
+        CacheManager cacheManager = newManager();
+
+        assertNotNull(cacheManager.getCache(SecondLevelCacheConfig.USERS));
+        assertNotNull(cacheManager.getCache(SecondLevelCacheConfig.USER_LOOKUPS));
+        assertNotNull(cacheManager.getCache(SecondLevelCacheConfig.ROUTES));
+        assertNotNull(cacheManager.getCache(SecondLevelCacheConfig.ROUTE_LOOKUPS));
+        assertNotNull(cacheManager.getCache("default-query-results-region"));
+        assertNotNull(cacheManager.getCache("default-update-timestamps-region"));
+        assertNull(cacheManager.getCache("trucks"));
+    }
+
+    @Test
+    void secondContextGetsItsOwnManager() {
+        CacheManager first = newManager();
+        // Would fail with "cache already exists" if both contexts shared the provider's default manager
+        CacheManager second = newManager();
+
+        assertNotEquals(first.getURI(), second.getURI());
+        first.getCache(SecondLevelCacheConfig.ROUTES).put(1L, "route");
+        assertNull(second.getCache(SecondLevelCacheConfig.ROUTES).get(1L));
+    }
+
+    @Test
+    void closingOneContextLeavesTheOtherWorking() {
+        CacheManager first = newManager();
+        CacheManager second = newManager();
+
+        first.close();
+
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        second.getCache(SecondLevelCacheConfig.ROUTES).put(1L, "route");
+        assertEquals("route", second.getCache(SecondLevelCacheConfig.ROUTES).get(1L));
+    }
+
+    @Test
+    void hibernateUsesTheContextsManagerAndFailsOnUndeclaredRegions() {
+        CacheManager cacheManager = newManager();
+        Map<String, Object> properties = new HashMap<>();
+
+        config.secondLevelCacheCustomizer(cacheManager, true).customize(properties);
+
+        assertSame(cacheManager, properties.get("hibernate.javax.cache.cache_manager"));
+        assertEquals("fail", properties.get("hibernate.javax.cache.missing_cache_strategy"));
+        assertEquals("ENABLE_SELECTIVE", properties.get("jakarta.persistence.sharedCache.mode"));
+    }
+
+    @Test
+    void usersAreCachedInTheirOwnRegion() {
+        assertNotNull(User.class.getAnnotation(Cacheable.class));
+        assertEquals(SecondLevelCacheConfig.USERS, User.class.getAnnotation(Cache.class).region());
+    }
+
+    private CacheManager newManager() {
+        CacheManager cacheManager = config.hibernateCacheManager(100, 10, 100, 60, 100, 5);
+        managers.add(cacheManager);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,106 @@
+package com.marocotransport.controller;
+
+import com.maroctransit.auth.dto.SignUpRequest;
+import com.maroctransit.auth.security.JwtTokenProvider;
+import com.maroctransit.auth.service.UserService;
+import com.marocotransport.matching.RecommendationStore;
+import com.marocotransport.repository.UserRepository;
+import com.marocotransport.security.SignupUniquenessIndex;
+import com.marocotransport.security.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthControllerSignupTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    // Stands in for the users table and its unique constraint
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    private SignupUniquenessIndex signupUniquenessIndex;
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.count()).thenReturn(0L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        signupUniquenessIndex = new SignupUniquenessIndex(userRepository, 1_000, 100);
+        signupUniquenessIndex.build();
+
+        when(userService.existsByEmail(anyString()))
+                .thenAnswer(invocation -> registered.contains(key(invocation.getArgument(0))));
+        when(userService.existsByUsername(anyString()))
+                .thenAnswer(invocation -> registered.contains(key(invocation.getArgument(0))));
+        doAnswer(invocation -> {
+            SignUpRequest request = invocation.getArgument(0);
+            registered.add(key(request.getEmail()));
+            return null;
+        }).when(userService).createUser(any());
+
+        controller = new AuthController(mock(AuthenticationManager.class), mock(JwtTokenProvider.class), userService,
+                new TokenRevocationService(1_000, 3_600_000, 86_400_000), signupUniquenessIndex,
+                mock(RecommendationStore.class));
+    }
+
+    @Test
+    void firstSignupIsASingleWrite() {
+        assertEquals(HttpStatus.CREATED, controller.registerUser(signUp("new@example.com")).getStatusCode());
+
+        verify(userService, never()).existsByEmail(anyString());
+        verify(userService, never()).existsByUsername(anyString());
+        verify(userService).createUser(any());
+    }
+
+    @Test
+    void signupFeedsTheFilter() {
+        assertFalse(signupUniquenessIndex.mightExist("new@example.com"));
+
+        controller.registerUser(signUp("new@example.com"));
+
+        assertTrue(signupUniquenessIndex.mightExist("NEW@example.com"));
+    }
+
+    @Test
+    void sameEmailTwiceIsRejected() {
+        assertEquals(HttpStatus.CREATED, controller.registerUser(signUp("twice@example.com")).getStatusCode());
+
+        assertEquals(HttpStatus.BAD_REQUEST, controller.registerUser(signUp("twice@example.com")).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.registerUser(signUp("Twice@Example.com")).getStatusCode());
+
+        // Only the repeated signups had to ask the database, and nothing was written twice
+        verify(userService, times(2)).existsByEmail(anyString());
+        verify(userService, times(1)).createUser(any());
+        verify(userService, never()).existsByUsername(anyString());
+    }
+
+    private static SignUpRequest signUp(String email) {
+        SignUpRequest request = mock(SignUpRequest.class);
+        when(request.getEmail()).thenReturn(email);
+        when(request.getUsername()).thenReturn(email);
+        return request;
+    }
+
+    private static String key(String identifier) {
+        return identifier.toLowerCase(Locale.ROOT);
+    }
+}
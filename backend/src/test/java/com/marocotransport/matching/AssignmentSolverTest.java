@@ -0,0 +1,184 @@
+package com.marocotransport.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssignmentSolverTest {
+
+    private static final double F = AssignmentSolver.FORBIDDEN;
+
+    private final AssignmentSolver solver = new AssignmentSolver();
+
+    @Test
+    void solvesSquareMatrixOptimally() {
+        double[][] cost = {
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2}
+        };
+
+        int[] assignment = solver.solve(cost);
+
+        assertArrayEquals(new int[]{1, 0, 2}, assignment);
+        assertEquals(5.0, total(cost, assignment));
+    }
+
+    @Test
+    void emptyMatrixHasNoAssignment() {
+        assertArrayEquals(new int[0], solver.solve(new double[0][]));
+    }
+
+    @Test
+    void rowWithOnlyForbiddenPairsIsUnassigned() {
+        double[][] cost = {
+                {1, 2},
+                {F, F},
+                {2, 1}
+        };
+
+        int[] assignment = solver.solve(cost);
+
+        assertEquals(-1, assignment[1]);
+        assertEquals(0, assignment[0]);
+        assertEquals(1, assignment[2]);
+    }
+
+    @Test
+    void forbiddenPairIsNeverReturnedEvenWhenItCompletesTheMatching() {
+        // Both rows can only use column 0, so one of them must stay unassigned
+        double[][] cost = {
+                {1, F},
+                {2, F}
+        };
+
+        int[] assignment = solver.solve(cost);
+
+        assertArrayEquals(new int[]{0, -1}, assignment);
+    }
+
+    @Test
+    void moreColumnsThanRowsLeavesColumnsUnused() {
+        double[][] cost = {
+                {9, 9, 1, 9},
+                {9, 2, 9, 9}
+        };
+
+        assertArrayEquals(new int[]{2, 1}, solver.solve(cost));
+    }
+
+    @Test
+    void moreRowsThanColumnsLeavesTheCostliestRowsUnassigned() {
+        double[][] cost = {
+                {5, 9},
+                {1, 9},
+                {9, 2},
+                {9, 7}
+        };
+
+        assertArrayEquals(new int[]{-1, 0, 1, -1}, solver.solve(cost));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomRectangularMatrices() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int rows = 1 + random.nextInt(5);
+            int cols = 1 + random.nextInt(5);
+            double[][] cost = randomCost(random, rows, cols);
+
+            int[] assignment = solver.solve(cost);
+
+            assertValid(cost, assignment);
+            assertEquals(bruteForce(cost), score(cost, assignment), 1e-9, "round " + round);
+        }
+    }
+
+    @Test
+    void parallelScanFindsTheSameOptimum() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AssignmentSolver parallel = new AssignmentSolver(pool, 1);
+            Random random = new Random(7);
+            for (int round = 0; round < 50; round++) {
+                double[][] cost = randomCost(random, 1 + random.nextInt(5), 1 + random.nextInt(5));
+
+                assertEquals(score(cost, solver.solve(cost)), score(cost, parallel.solve(cost)), 1e-9);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static double[][] randomCost(Random random, int rows, int cols) {
+        double[][] cost = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                cost[i][j] = random.nextInt(4) == 0 ? F : random.nextInt(100);
+            }
+        }
+        return cost;
+    }
+
+    private static void assertValid(double[][] cost, int[] assignment) {
+        assertEquals(cost.length, assignment.length);
+        boolean[] taken = new boolean[cost[0].length];
+        for (int i = 0; i < assignment.length; i++) {
+            int j = assignment[i];
+            if (j >= 0) {
+                assertFalse(taken[j], "column " + j + " assigned twice");
+                assertTrue(cost[i][j] < F, "forbidden pair (" + i + ", " + j + ") assigned");
+                taken[j] = true;
+            }
+        }
+    }
+
+    private static double total(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            total += cost[i][assignment[i]];
+        }
+        return total;
+    }
+
+    // Most pairs first, then lowest cost: a forbidden pair counts as an unassigned row
+    private static double score(double[][] cost, int[] assignment) {
+        int assigned = 0;
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) {
+                assigned++;
+                total += cost[i][assignment[i]];
+            }
+        }
+        return total - assigned * 1e6;
+    }
+
+    private static double bruteForce(double[][] cost) {
+        return bruteForce(cost, 0, new boolean[cost[0].length], new int[cost.length]);
+    }
+
+    private static double bruteForce(double[][] cost, int row, boolean[] taken, int[] assignment) {
+        if (row == cost.length) {
+            return score(cost, assignment);
+        }
+        assignment[row] = -1;
+        double best = bruteForce(cost, row + 1, taken, assignment);
+        for (int j = 0; j < taken.length; j++) {
+            if (!taken[j] && cost[row][j] < F) {
+                taken[j] = true;
+                assignment[row] = j;
+                best = Math.min(best, bruteForce(cost, row + 1, taken, assignment));
+                taken[j] = false;
+            }
+        }
+        assignment[row] = -1;
+        return best;
+    }
+}
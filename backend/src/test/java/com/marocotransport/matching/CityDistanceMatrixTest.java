@@ -0,0 +1,78 @@
+package com.marocotransport.matching;
+
+import com.marocotransport.entity.Route;
+import com.marocotransport.repository.RouteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CityDistanceMatrixTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final RouteRepository routeRepository = mock(RouteRepository.class);
+
+    private CityDistanceMatrix matrix;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        matrix = newMatrix();
+        matrix.open();
+    }
+
+    @Test
+    void pairsStartAsDetouredGreatCircleEstimates() {
+        double[] casablanca = CityCoordinates.lookup("Casablanca");
+        double[] rabat = CityCoordinates.lookup("Rabat");
+        double expected = CityCoordinates.haversineKm(casablanca[0], casablanca[1], rabat[0], rabat[1]) * 1.25;
+
+        assertEquals(expected, matrix.distanceKm("Casablanca", "Rabat"), 0.01);
+        assertEquals(matrix.distanceKm("Casablanca", "Rabat"), matrix.distanceKm("Rabat", "Casablanca"));
+    }
+
+    @Test
+    void refreshPicksUpChangedRoutes() {
+        when(routeRepository.findAllActive()).thenReturn(List.of(route("Casablanca", "Rabat", 95.0, 70)));
+        matrix.refresh();
+        assertEquals(95.0, matrix.distanceKm("Casablanca", "Rabat"), 0.001);
+        assertEquals(70.0, matrix.etaMinutes("Rabat", "Casablanca"), 0.001);
+
+        when(routeRepository.findAllActive()).thenReturn(List.of(route("Casablanca", "Rabat", 88.0, 65)));
+        matrix.refresh();
+        assertEquals(88.0, matrix.distanceKm("Casablanca", "Rabat"), 0.001);
+    }
+
+    @Test
+    void refreshedFileIsReusedAfterARestart() throws IOException {
+        when(routeRepository.findAllActive()).thenReturn(List.of(route("Fes", "Tanger", 250.0, 200)));
+        matrix.refresh();
+
+        CityDistanceMatrix reopened = newMatrix();
+        reopened.open();
+
+        assertEquals(250.0, reopened.distanceKm("Fes", "Tanger"), 0.001);
+    }
+
+    private CityDistanceMatrix newMatrix() {
+        return new CityDistanceMatrix(routeRepository, tempDir.resolve("city-distances.bin").toString(), 1.25, 70);
+    }
+
+    private static Route route(String origin, String destination, double distance, int minutes) {
+        Route route = new Route();
+        route.setOrigin(origin);
+        route.setDestination(destination);
+        route.setDistance(distance);
+        route.setEstimatedTime(minutes);
+        route.setActive(true);
+        return route;
+    }
+}
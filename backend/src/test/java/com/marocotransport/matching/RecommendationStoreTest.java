@@ -0,0 +1,233 @@
+package com.marocotransport.matching;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maroctransit.auth.dto.MatchingResultDTO;
+import com.maroctransit.auth.service.MatchingService;
+import com.marocotransport.entity.User;
+import com.marocotransport.security.TokenRevocationService;
+import com.marocotransport.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecommendationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final MatchingService matchingService = mock(MatchingService.class);
+    private final UserService userService = mock(UserService.class);
+    private final TokenRevocationService tokenRevocationService =
+            new TokenRevocationService(1_000, TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(1));
+
+    // Scoring runs per user, and what each run saw of the caller's identity
+    private final Map<String, AtomicInteger> runs = new ConcurrentHashMap<>();
+    private final Map<String, List<MatchingResultDTO>> lists = new ConcurrentHashMap<>();
+    private final List<Authentication> seen = new CopyOnWriteArrayList<>();
+
+    private RecommendationStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(matchingService.getRecommendations(anyInt())).thenAnswer(invocation -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            seen.add(authentication);
+            String username = authentication.getName();
+            runs.computeIfAbsent(username, key -> new AtomicInteger()).incrementAndGet();
+            return lists.getOrDefault(username, List.of());
+        });
+        User active = new User();
+        active.setActive(true);
+        when(userService.getUserByEmail(anyString())).thenReturn(Optional.of(active));
+
+        store = newStore(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheStore() {
+        lists.put("carrier@example.com", List.of(result(1L, 10L)));
+        Authentication carrier = authenticate("carrier@example.com", "ROLE_CARRIER");
+
+        read(carrier);
+        read(carrier);
+        read(carrier);
+
+        assertEquals(1, runs("carrier@example.com"));
+    }
+
+    @Test
+    void removingAListedJobOnlyRefreshesTheUsersShowingIt() throws InterruptedException {
+        lists.put("a@example.com", List.of(result(1L, 10L)));
+        lists.put("b@example.com", List.of(result(2L, 20L)));
+        Authentication a = authenticate("a@example.com", "ROLE_CARRIER");
+        Authentication b = authenticate("b@example.com", "ROLE_CARRIER");
+        read(a);
+        read(b);
+
+        store.markJobsRemoved(List.of(1L));
+        read(a);
+        read(b);
+
+        awaitRuns("a@example.com", 2);
+        assertEquals(1, runs("b@example.com"));
+    }
+
+    @Test
+    void staleListIsServedWhileItIsRecomputed() throws InterruptedException {
+        MatchingResultDTO before = result(1L, 10L);
+        MatchingResultDTO after = result(3L, 10L);
+        lists.put("carrier@example.com", List.of(before));
+        Authentication carrier = authenticate("carrier@example.com", "ROLE_CARRIER");
+        read(carrier);
+
+        lists.put("carrier@example.com", List.of(after));
+        store.markJobsRemoved(List.of(1L));
+
+        assertEquals(List.of(before), read(carrier));
+        awaitRuns("carrier@example.com", 2);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!read(carrier).equals(List.of(after)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of(after), read(carrier));
+        assertEquals(2, runs("carrier@example.com"));
+    }
+
+    @Test
+    void changedTrucksOnlyAffectShippers() throws InterruptedException {
+        Authentication carrier = authenticate("carrier@example.com", "ROLE_CARRIER");
+        Authentication shipper = authenticate("shipper@example.com", "ROLE_SHIPPER");
+        read(carrier);
+        read(shipper);
+
+        store.markTrucksChanged();
+        read(carrier);
+        read(shipper);
+
+        awaitRuns("shipper@example.com", 2);
+        assertEquals(1, runs("carrier@example.com"));
+    }
+
+    @Test
+    void listsOlderThanTheMaximumAgeAreRefreshedOnRead() throws InterruptedException {
+        store.shutdown();
+        store = newStore(0);
+        Authentication shipper = authenticate("shipper@example.com", "ROLE_SHIPPER");
+
+        read(shipper);
+        read(shipper);
+
+        awaitRuns("shipper@example.com", 2);
+    }
+
+    @Test
+    void refreshRunsUnderThePrincipalAndAuthoritiesOnly() throws InterruptedException {
+        Authentication carrier = authenticate("carrier@example.com", "ROLE_CARRIER");
+        read(carrier);
+
+        store.markJobsChanged();
+        read(carrier);
+
+        awaitRuns("carrier@example.com", 2);
+        Authentication refreshed = seen.get(seen.size() - 1);
+        assertEquals("carrier@example.com", refreshed.getName());
+        assertEquals(carrier.getAuthorities(), List.copyOf(refreshed.getAuthorities()));
+        assertNull(refreshed.getCredentials());
+        assertNull(refreshed.getDetails());
+    }
+
+    @Test
+    void revokedUserIsDroppedInsteadOfRefreshed() throws InterruptedException {
+        Authentication carrier = authenticate("carrier@example.com", "ROLE_CARRIER");
+        read(carrier);
+
+        tokenRevocationService.revokeUser("carrier@example.com");
+        store.markJobsChanged();
+
+        // Served stale until the refresh has dropped the list; the read after that computes it afresh
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (runs("carrier@example.com") < 2 && System.currentTimeMillis() < deadline) {
+            read(carrier);
+            Thread.sleep(10);
+        }
+        assertEquals(2, runs("carrier@example.com"));
+        // Recomputed by the read itself (it carries the request's credentials), never by the refresh
+        assertEquals("secret", seen.get(1).getCredentials());
+    }
+
+    @Test
+    void evictedUserIsRecomputedOnTheNextRead() {
+        Authentication carrier = authenticate("carrier@example.com", "ROLE_CARRIER");
+        read(carrier);
+
+        store.evict("carrier@example.com");
+        read(carrier);
+
+        assertEquals(2, runs("carrier@example.com"));
+    }
+
+    private RecommendationStore newStore(long maxAgeMinutes) {
+        return new RecommendationStore(matchingService, userService, tokenRevocationService, new ObjectMapper(),
+                mock(PlatformTransactionManager.class), 20, 1_000, 24, maxAgeMinutes,
+                tempDir.resolve("recommendations.json").toString());
+    }
+
+    private static Authentication authenticate(String username, String role) {
+        return UsernamePasswordAuthenticationToken.authenticated(
+                username, "secret", List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    // Reads the store the way the controller does, with the caller's context set
+    private List<MatchingResultDTO> read(Authentication authentication) {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return store.get(authentication, 5);
+    }
+
+    private static MatchingResultDTO result(Long jobId, Long truckId) {
+        MatchingResultDTO result = mock(MatchingResultDTO.class);
+        when(result.getJobId()).thenReturn(jobId);
+        when(result.getTruckId()).thenReturn(truckId);
+        return result;
+    }
+
+    private int runs(String username) {
+        AtomicInteger count = runs.get(username);
+        return count != null ? count.get() : 0;
+    }
+
+    private void awaitRuns(String username, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (runs(username) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, runs(username));
+    }
+}
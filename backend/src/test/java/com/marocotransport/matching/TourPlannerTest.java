@@ -0,0 +1,164 @@
+package com.marocotransport.matching;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TourPlannerTest {
+
+    private static final long BUDGET_MILLIS = 50;
+
+    @TempDir
+    Path tempDir;
+
+    private CityDistanceMatrix roadDistances;
+    private TourPlanner planner;
+
+    private int casablanca;
+    private int rabat;
+    private int fes;
+    private int marrakech;
+    private int tanger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Seeded with great-circle estimates; no routes are loaded
+        roadDistances = new CityDistanceMatrix(null, tempDir.resolve("city-distances.bin").toString(), 1.25, 70);
+        roadDistances.open();
+        planner = new TourPlanner(roadDistances, 2, 1);
+        casablanca = roadDistances.indexOf("Casablanca");
+        rabat = roadDistances.indexOf("Rabat");
+        fes = roadDistances.indexOf("Fes");
+        marrakech = roadDistances.indexOf("Marrakech");
+        tanger = roadDistances.indexOf("Tanger");
+    }
+
+    @AfterEach
+    void tearDown() {
+        planner.shutdown();
+    }
+
+    @Test
+    void servesEveryJobThatFits() {
+        int[] pickup = {rabat, casablanca, fes};
+        int[] delivery = {fes, marrakech, tanger};
+        double[] weight = {2, 3, 4};
+
+        TourPlanner.Plan plan = planner.plan(casablanca, 10, pickup, delivery, weight, BUDGET_MILLIS);
+
+        assertEquals(6, plan.getStops().length);
+        assertFeasible(plan, 10, weight);
+    }
+
+    @Test
+    void jobHeavierThanTheTruckIsLeftOut() {
+        int[] pickup = {rabat, casablanca};
+        int[] delivery = {fes, marrakech};
+        double[] weight = {2, 12};
+
+        TourPlanner.Plan plan = planner.plan(casablanca, 10, pickup, delivery, weight, BUDGET_MILLIS);
+
+        assertEquals(2, plan.getStops().length);
+        for (int stop : plan.getStops()) {
+            assertEquals(0, TourPlanner.Plan.jobOf(stop));
+        }
+    }
+
+    @Test
+    void jobsThatCannotShareTheTruckAreCarriedOneAfterAnother() {
+        // Each fits alone, together they would overload the truck
+        int[] pickup = {casablanca, casablanca, rabat};
+        int[] delivery = {rabat, fes, fes};
+        double[] weight = {6, 6, 6};
+
+        TourPlanner.Plan plan = planner.plan(casablanca, 10, pickup, delivery, weight, BUDGET_MILLIS);
+
+        assertEquals(6, plan.getStops().length);
+        assertFeasible(plan, 10, weight);
+    }
+
+    @Test
+    void loadExactlyAtCapacityIsAllowed() {
+        int[] pickup = {casablanca, casablanca};
+        int[] delivery = {rabat, rabat};
+        double[] weight = {4, 6};
+
+        TourPlanner.Plan plan = planner.plan(casablanca, 10, pickup, delivery, weight, BUDGET_MILLIS);
+
+        assertEquals(4, plan.getStops().length);
+        assertFeasible(plan, 10, weight);
+    }
+
+    @Test
+    void reportedDistanceFollowsTheStops() {
+        int[] pickup = {rabat, casablanca};
+        int[] delivery = {fes, marrakech};
+        double[] weight = {1, 1};
+
+        TourPlanner.Plan plan = planner.plan(casablanca, 10, pickup, delivery, weight, BUDGET_MILLIS);
+
+        double distance = 0;
+        int city = casablanca;
+        for (int stop : plan.getStops()) {
+            int job = TourPlanner.Plan.jobOf(stop);
+            int next = TourPlanner.Plan.isPickup(stop) ? pickup[job] : delivery[job];
+            distance += roadDistances.distanceKm(city, next);
+            city = next;
+        }
+        assertEquals(distance, plan.getDistanceKm(), 1e-6);
+    }
+
+    @Test
+    void noJobsGiveAnEmptyTour() {
+        TourPlanner.Plan plan = planner.plan(casablanca, 10, new int[0], new int[0], new double[0], BUDGET_MILLIS);
+
+        assertEquals(0, plan.getStops().length);
+        assertEquals(0.0, plan.getDistanceKm());
+    }
+
+    @Test
+    void planBeyondTheConcurrencyLimitIsRejected() throws Exception {
+        int[] pickup = {rabat, casablanca, fes};
+        int[] delivery = {fes, marrakech, tanger};
+        double[] weight = {2, 3, 4};
+        CompletableFuture<TourPlanner.Plan> running = CompletableFuture.supplyAsync(
+                () -> planner.plan(casablanca, 10, pickup, delivery, weight, 1_000));
+        Thread.sleep(200);
+
+        assertThrows(TourPlannerBusyException.class,
+                () -> planner.plan(casablanca, 10, pickup, delivery, weight, BUDGET_MILLIS));
+        assertEquals(6, running.get().getStops().length);
+    }
+
+    // Every served job is picked up before it is delivered, exactly once, and the load never exceeds capacity
+    private static void assertFeasible(TourPlanner.Plan plan, double capacity, double[] weight) {
+        boolean[] pickedUp = new boolean[weight.length];
+        boolean[] delivered = new boolean[weight.length];
+        double load = 0;
+        for (int stop : plan.getStops()) {
+            int job = TourPlanner.Plan.jobOf(stop);
+            if (TourPlanner.Plan.isPickup(stop)) {
+                assertTrue(!pickedUp[job], "job " + job + " picked up twice");
+                pickedUp[job] = true;
+                load += weight[job];
+            } else {
+                assertTrue(pickedUp[job] && !delivered[job], "job " + job + " delivered out of order");
+                delivered[job] = true;
+                load -= weight[job];
+            }
+            assertTrue(load <= capacity + 1e-9, "load " + load + " exceeds capacity " + capacity);
+        }
+        for (int job = 0; job < weight.length; job++) {
+            assertEquals(pickedUp[job], delivered[job], "job " + job + " picked up but not delivered");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.marocotransport.matching.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GradientBoostedTreesModelTest {
+
+    private static final int D = FeatureBatch.DISTANCE_RATIO;
+    private static final int C = FeatureBatch.CAPACITY_FIT;
+
+    @Test
+    void leafOnlyTreesAddTheirValues() {
+        GradientBoostedTreesModel model = model(0.1, 1.0, false, new int[]{0, 1},
+                new int[]{-1, -1}, new int[]{-1, -1}, new int[]{-1, -1}, new double[]{0.5, 0.25});
+
+        assertArrayEquals(new double[]{0.85, 0.85}, score(model, new double[]{0.0, 1.0}, new double[]{0.0, 0.0}),
+                1e-12);
+    }
+
+    @Test
+    void pairsWalkTheirOwnPath() {
+        // distanceRatio < 0.4 ? (capacityFit < 0.5 ? 0.2 : 0.6) : -0.3
+        GradientBoostedTreesModel model = model(0.0, 1.0, false, new int[]{0},
+                new int[]{D, C, -1, -1, -1}, new int[]{1, 2, -1, -1, -1}, new int[]{4, 3, -1, -1, -1},
+                new double[]{0, 0, 0.2, 0.6, -0.3});
+
+        double[] scores = score(model, new double[]{0.1, 0.1, 0.9}, new double[]{0.2, 0.8, 0.8});
+
+        assertArrayEquals(new double[]{0.2, 0.6, -0.3}, scores, 1e-12);
+    }
+
+    @Test
+    void learningRateScalesEveryTree() {
+        GradientBoostedTreesModel model = model(0.5, 0.1, false, new int[]{0, 1},
+                new int[]{-1, -1}, new int[]{-1, -1}, new int[]{-1, -1}, new double[]{1.0, 2.0});
+
+        assertEquals(0.8, score(model, new double[]{0.0}, new double[]{0.0})[0], 1e-12);
+    }
+
+    @Test
+    void logisticOutputIsTheSigmoidOfTheSum() {
+        GradientBoostedTreesModel model = model(0.25, 1.0, true, new int[]{0},
+                new int[]{-1}, new int[]{-1}, new int[]{-1}, new double[]{0.5});
+
+        double expected = 1.0 / (1.0 + Math.exp(-0.75));
+        assertEquals(expected, score(model, new double[]{0.0}, new double[]{0.0})[0], 1e-12);
+    }
+
+    @Test
+    void nodeArraysMustHaveTheSameLength() {
+        assertThrows(IllegalArgumentException.class, () -> model(0.0, 1.0, false, new int[]{0},
+                new int[]{-1, -1}, new int[]{-1}, new int[]{-1, -1}, new double[]{0.0, 0.0}));
+    }
+
+    @Test
+    void rootsMustBeAscendingAndInRange() {
+        int[] leaves = {-1, -1};
+        double[] values = {0.1, 0.2};
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, false, new int[]{1, 0}, leaves, leaves, leaves, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, false, new int[]{0, 0}, leaves, leaves, leaves, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, false, new int[]{0, 2}, leaves, leaves, leaves, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, false, new int[]{-1}, leaves, leaves, leaves, values));
+    }
+
+    @Test
+    void childrenPointingBackwardAreRejected() {
+        // Node 1 splits back to node 0, which would loop forever
+        assertThrows(IllegalArgumentException.class, () -> model(0.0, 1.0, false, new int[]{0},
+                new int[]{D, D, -1}, new int[]{1, 0, -1}, new int[]{2, 2, -1}, new double[]{0, 0, 0.1}));
+        // A node may not be its own child either
+        assertThrows(IllegalArgumentException.class, () -> model(0.0, 1.0, false, new int[]{0},
+                new int[]{D, -1}, new int[]{0, -1}, new int[]{1, -1}, new double[]{0, 0.1}));
+    }
+
+    @Test
+    void childrenOutsideTheirTreeAreRejected() {
+        // Tree 0 is nodes 0-2 and tree 1 is node 3; node 0's right child jumps into tree 1
+        assertThrows(IllegalArgumentException.class, () -> model(0.0, 1.0, false, new int[]{0, 3},
+                new int[]{D, -1, -1, -1}, new int[]{1, -1, -1, -1}, new int[]{3, -1, -1, -1},
+                new double[]{0, 0.1, 0.2, 0.3}));
+        // Past the end of the arrays
+        assertThrows(IllegalArgumentException.class, () -> model(0.0, 1.0, false, new int[]{0},
+                new int[]{D, -1}, new int[]{1, -1}, new int[]{2, -1}, new double[]{0, 0.1}));
+    }
+
+    @Test
+    void unknownFeatureIndexIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> model(0.0, 1.0, false, new int[]{0},
+                new int[]{FeatureBatch.FEATURE_COUNT, -1, -1}, new int[]{1, -1, -1}, new int[]{2, -1, -1},
+                new double[]{0, 0.1, 0.2}));
+    }
+
+    private static GradientBoostedTreesModel model(double baseScore, double learningRate, boolean sigmoid,
+                                                   int[] roots, int[] feature, int[] left, int[] right,
+                                                   double[] value) {
+        return new GradientBoostedTreesModel(baseScore, learningRate, sigmoid, roots, feature,
+                thresholds(feature), left, right, value, "test");
+    }
+
+    // Every split in these trees is at 0.4 on distanceRatio and 0.5 on capacityFit
+    private static double[] thresholds(int[] feature) {
+        double[] threshold = new double[feature.length];
+        for (int k = 0; k < feature.length; k++) {
+            threshold[k] = feature[k] == D ? 0.4 : feature[k] == C ? 0.5 : 0.0;
+        }
+        return threshold;
+    }
+
+    static double[] score(ScoringModel model, double[] distanceRatio, double[] capacityFit) {
+        FeatureBatch batch = new FeatureBatch();
+        batch.reset(distanceRatio.length);
+        System.arraycopy(distanceRatio, 0, batch.column(D), 0, distanceRatio.length);
+        System.arraycopy(capacityFit, 0, batch.column(C), 0, capacityFit.length);
+        double[] out = new double[distanceRatio.length];
+        model.scoreBatch(batch, out);
+        return out;
+    }
+}
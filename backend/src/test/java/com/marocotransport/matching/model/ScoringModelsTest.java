@@ -0,0 +1,107 @@
+package com.marocotransport.matching.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoringModelsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void loadsTheDocumentedTreeModel() throws IOException {
+        ScoringModel model = load("model.json", "{\"type\": \"gbt\", \"baseScore\": 0.0, \"learningRate\": 0.1, "
+                + "\"objective\": \"logistic\", \"trees\": [{\"nodes\": ["
+                + "{\"feature\": \"distanceRatio\", \"threshold\": 0.4, \"left\": 1, \"right\": 2}, "
+                + "{\"leaf\": 0.8}, {\"leaf\": -0.5}]}]}");
+
+        double[] scores = GradientBoostedTreesModelTest.score(model, new double[]{0.1, 0.9}, new double[]{0, 0});
+
+        assertArrayEquals(new double[]{sigmoid(0.08), sigmoid(-0.05)}, scores, 1e-12);
+        assertTrue(model.describe().contains("model.json"), model.describe());
+    }
+
+    @Test
+    void childIndicesAreRelativeToTheirTree() throws IOException {
+        // The second tree's "left": 1 is its own node 1, not the first tree's
+        ScoringModel model = load("two-trees.json", "{\"type\": \"gbt\", \"trees\": ["
+                + "{\"nodes\": [{\"leaf\": 1.0}]}, "
+                + "{\"nodes\": [{\"feature\": \"capacityFit\", \"threshold\": 0.5, \"left\": 1, \"right\": 2}, "
+                + "{\"leaf\": 0.25}, {\"leaf\": 0.75}]}]}");
+
+        double[] scores = GradientBoostedTreesModelTest.score(model, new double[]{0, 0}, new double[]{0.2, 0.8});
+
+        assertArrayEquals(new double[]{1.25, 1.75}, scores, 1e-12);
+    }
+
+    @Test
+    void leafOnlyTreeIsAConstant() throws IOException {
+        ScoringModel model = load("constant.json",
+                "{\"type\": \"gbt\", \"baseScore\": 0.3, \"trees\": [{\"nodes\": [{\"leaf\": 0.2}]}]}");
+
+        assertEquals(0.5, GradientBoostedTreesModelTest.score(model, new double[]{0.7}, new double[]{0.1})[0],
+                1e-12);
+    }
+
+    @Test
+    void childPointingBackIsRejected() throws IOException {
+        Path path = write("loop.json", "{\"type\": \"gbt\", \"trees\": [{\"nodes\": ["
+                + "{\"feature\": \"distanceRatio\", \"threshold\": 0.4, \"left\": 0, \"right\": 1}, "
+                + "{\"leaf\": 0.1}]}]}");
+
+        assertThrows(IllegalArgumentException.class, () -> ScoringModels.load(path, objectMapper));
+    }
+
+    @Test
+    void childOutsideItsTreeIsRejected() throws IOException {
+        Path path = write("escape.json", "{\"type\": \"gbt\", \"trees\": ["
+                + "{\"nodes\": [{\"feature\": \"distanceRatio\", \"threshold\": 0.4, \"left\": 1, \"right\": 2}, "
+                + "{\"leaf\": 0.1}]}, "
+                + "{\"nodes\": [{\"leaf\": 0.2}]}]}");
+
+        assertThrows(IllegalArgumentException.class, () -> ScoringModels.load(path, objectMapper));
+    }
+
+    @Test
+    void unknownFeatureNamesAreRejected() throws IOException {
+        Path tree = write("tree.json", "{\"type\": \"gbt\", \"trees\": [{\"nodes\": ["
+                + "{\"feature\": \"driverRating\", \"threshold\": 0.4, \"left\": 1, \"right\": 2}, "
+                + "{\"leaf\": 0.1}, {\"leaf\": 0.2}]}]}");
+        Path linear = write("linear.json",
+                "{\"type\": \"linear\", \"bias\": 0.5, \"weights\": {\"driverRating\": 0.1}}");
+
+        assertThrows(IllegalArgumentException.class, () -> ScoringModels.load(tree, objectMapper));
+        assertThrows(IllegalArgumentException.class, () -> ScoringModels.load(linear, objectMapper));
+    }
+
+    @Test
+    void unknownModelTypeIsRejected() throws IOException {
+        Path path = write("forest.json", "{\"type\": \"random-forest\"}");
+
+        assertThrows(IllegalArgumentException.class, () -> ScoringModels.load(path, objectMapper));
+    }
+
+    private ScoringModel load(String name, String json) throws IOException {
+        return ScoringModels.load(write(name, json), objectMapper);
+    }
+
+    private Path write(String name, String json) throws IOException {
+        return Files.writeString(tempDir.resolve(name), json);
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+}
@@ -0,0 +1,207 @@
+package com.marocotransport.repository;
+
+import com.maroctransit.auth.dto.BatchAssignmentDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JobAssignmentRepositoryTest {
+
+    private static final String CARRIER = "carrier@example.com";
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private JobAssignmentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/h2/V6__job_assignments.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL)");
+        jdbc.execute("CREATE TABLE trucks (id BIGINT PRIMARY KEY, carrier_id BIGINT NOT NULL)");
+        jdbc.execute("CREATE TABLE jobs (id BIGINT PRIMARY KEY, status VARCHAR(32))");
+        jdbc.update("INSERT INTO jobs (id, status) VALUES (100, 'OPEN'), (101, 'OPEN'), (102, 'OPEN')");
+        jdbc.update("INSERT INTO users (id, email) VALUES (1, ?)", CARRIER);
+        jdbc.update("INSERT INTO users (id, email) VALUES (2, 'other@example.com')");
+        jdbc.update("INSERT INTO trucks (id, carrier_id) VALUES (10, 1), (11, 1), (20, 2)");
+        repository = new JobAssignmentRepository(new NamedParameterJdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void firstBatchCreatesAssignments() {
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(
+                assignment(100L, 10L), assignment(101L, 20L)));
+
+        assertEquals(JobAssignmentRepository.Saved.CREATED, saved.get(100L));
+        assertEquals(JobAssignmentRepository.Saved.CREATED, saved.get(101L));
+        assertEquals(10L, truckOf(100L));
+        assertEquals(20L, truckOf(101L));
+    }
+
+    @Test
+    void rebatchMovesAnUndecidedAssignment() {
+        repository.saveAll(List.of(assignment(100L, 10L)));
+
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(assignment(100L, 20L)));
+
+        assertEquals(JobAssignmentRepository.Saved.REASSIGNED, saved.get(100L));
+        assertEquals(20L, truckOf(100L));
+    }
+
+    @Test
+    void rebatchToTheSameTruckIsUnchanged() {
+        repository.saveAll(List.of(assignment(100L, 10L)));
+
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(assignment(100L, 10L)));
+
+        assertEquals(JobAssignmentRepository.Saved.UNCHANGED, saved.get(100L));
+        assertEquals(10L, truckOf(100L));
+    }
+
+    @Test
+    void rebatchAfterAnAcceptanceKeepsTheAcceptedAssignment() {
+        repository.saveAll(List.of(assignment(100L, 10L)));
+        assertEquals(JobAssignmentRepository.Decision.RECORDED, repository.recordDecision(100L, CARRIER, true));
+
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(assignment(100L, 20L)));
+
+        assertEquals(JobAssignmentRepository.Saved.ALREADY_ACCEPTED, saved.get(100L));
+        assertEquals(10L, truckOf(100L));
+        assertEquals(Boolean.TRUE, jdbc.queryForObject(
+                "SELECT accepted FROM job_assignments WHERE job_id = 100", Boolean.class));
+        // The carrier's decision still stands and cannot be made again
+        assertEquals(JobAssignmentRepository.Decision.ALREADY_DECIDED,
+                repository.recordDecision(100L, CARRIER, false));
+    }
+
+    @Test
+    void rebatchAfterADeclineOpensANewDecision() {
+        repository.saveAll(List.of(assignment(100L, 10L), assignment(101L, 11L)));
+        repository.recordDecision(100L, CARRIER, false);
+
+        // The declined truck is free again, so another job can take it
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(
+                assignment(100L, 20L), assignment(101L, 10L)));
+
+        assertEquals(JobAssignmentRepository.Saved.REASSIGNED, saved.get(100L));
+        assertEquals(JobAssignmentRepository.Saved.REASSIGNED, saved.get(101L));
+        assertEquals(20L, truckOf(100L));
+        assertEquals(10L, truckOf(101L));
+        assertNull(jdbc.queryForObject("SELECT accepted FROM job_assignments WHERE job_id = 100", Boolean.class));
+        assertNull(jdbc.queryForObject(
+                "SELECT decided_at FROM job_assignments WHERE job_id = 100", Timestamp.class));
+        // The new truck's carrier decides; the carrier who declined no longer can
+        assertEquals(JobAssignmentRepository.Decision.NOT_FOUND, repository.recordDecision(100L, CARRIER, true));
+        assertEquals(JobAssignmentRepository.Decision.RECORDED,
+                repository.recordDecision(100L, "other@example.com", true));
+    }
+
+    @Test
+    void rebatchToTheDecliningTruckIsANewOffer() {
+        repository.saveAll(List.of(assignment(100L, 10L)));
+        repository.recordDecision(100L, CARRIER, false);
+
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(assignment(100L, 10L)));
+
+        assertEquals(JobAssignmentRepository.Saved.REASSIGNED, saved.get(100L));
+        assertEquals(JobAssignmentRepository.Decision.RECORDED, repository.recordDecision(100L, CARRIER, true));
+    }
+
+    @Test
+    void truckTakenByAnotherJobSinceLoadingIsNotAssignedTwice() {
+        // Another batch placed job 102 on truck 20 after this one loaded its candidates
+        repository.saveAll(List.of(assignment(102L, 20L)));
+
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(
+                assignment(100L, 20L), assignment(101L, 11L)));
+
+        assertEquals(JobAssignmentRepository.Saved.TRUCK_TAKEN, saved.get(100L));
+        assertEquals(JobAssignmentRepository.Saved.CREATED, saved.get(101L));
+        assertEquals(0, countRows(100L));
+        assertEquals(20L, truckOf(102L));
+    }
+
+    @Test
+    void truckHeldByAJobOfTheBatchCanBeReassigned() {
+        repository.saveAll(List.of(assignment(100L, 10L)));
+
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(
+                assignment(100L, 11L), assignment(101L, 10L)));
+
+        assertEquals(JobAssignmentRepository.Saved.REASSIGNED, saved.get(100L));
+        assertEquals(JobAssignmentRepository.Saved.CREATED, saved.get(101L));
+        assertEquals(11L, truckOf(100L));
+        assertEquals(10L, truckOf(101L));
+    }
+
+    @Test
+    void truckOfAnAcceptedJobInTheBatchStaysTaken() {
+        repository.saveAll(List.of(assignment(100L, 10L)));
+        repository.recordDecision(100L, CARRIER, true);
+
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(
+                assignment(100L, 11L), assignment(101L, 10L)));
+
+        assertEquals(JobAssignmentRepository.Saved.ALREADY_ACCEPTED, saved.get(100L));
+        assertEquals(JobAssignmentRepository.Saved.TRUCK_TAKEN, saved.get(101L));
+        assertEquals(10L, truckOf(100L));
+    }
+
+    @Test
+    void jobLosingItsTruckGivesUpItsEarlierAssignment() {
+        repository.saveAll(List.of(assignment(100L, 10L)));
+        repository.saveAll(List.of(assignment(102L, 20L)));
+
+        // The batch moves job 100 to truck 20, which job 102 took, and gives truck 10 to job 101
+        Map<Long, JobAssignmentRepository.Saved> saved = repository.saveAll(List.of(
+                assignment(100L, 20L), assignment(101L, 10L)));
+
+        assertEquals(JobAssignmentRepository.Saved.TRUCK_TAKEN, saved.get(100L));
+        assertEquals(JobAssignmentRepository.Saved.CREATED, saved.get(101L));
+        assertEquals(0, countRows(100L));
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM job_assignments WHERE truck_id = 10", Integer.class));
+    }
+
+    @Test
+    void decisionIsOnlyRecordedByTheAssignedTrucksCarrier() {
+        repository.saveAll(List.of(assignment(100L, 20L)));
+
+        assertEquals(JobAssignmentRepository.Decision.NOT_FOUND, repository.recordDecision(100L, CARRIER, true));
+        assertEquals(JobAssignmentRepository.Decision.RECORDED,
+                repository.recordDecision(100L, "other@example.com", true));
+    }
+
+    private int countRows(long jobId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM job_assignments WHERE job_id = ?", Integer.class, jobId);
+    }
+
+    private long truckOf(long jobId) {
+        return jdbc.queryForObject("SELECT truck_id FROM job_assignments WHERE job_id = ?", Long.class, jobId);
+    }
+
+    private static BatchAssignmentDTO assignment(Long jobId, Long truckId) {
+        return new BatchAssignmentDTO(jobId, truckId, 12.5, 0.8);
+    }
+}
@@ -0,0 +1,122 @@
+package com.marocotransport.repository;
+
+import com.maroctransit.auth.dto.JobCandidateDTO;
+import com.maroctransit.auth.dto.TruckCandidateDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MatchingCandidateRepositoryTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private MatchingCandidateRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/h2/V6__job_assignments.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL)");
+        jdbc.execute("CREATE TABLE jobs (id BIGINT PRIMARY KEY, origin VARCHAR(255), destination VARCHAR(255), "
+                + "weight DOUBLE PRECISION, status VARCHAR(32), shipper_id BIGINT)");
+        jdbc.execute("CREATE TABLE trucks (id BIGINT PRIMARY KEY, location VARCHAR(255), capacity DOUBLE PRECISION, "
+                + "fuel_type VARCHAR(32), available BOOLEAN, carrier_id BIGINT)");
+        jdbc.update("INSERT INTO users (id, email) VALUES (1, 'shipper@example.com'), (2, 'other@example.com')");
+        repository = new MatchingCandidateRepository(new NamedParameterJdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void onlyOpenJobsAreLoaded() {
+        job(100L, "OPEN", 1L);
+        job(101L, "COMPLETED", 1L);
+        job(102L, "OPEN", 1L);
+        job(103L, "OPEN", 1L);
+        job(104L, "OPEN", 1L);
+        assignment(102L, 10L, null);
+        assignment(103L, 11L, Boolean.FALSE);
+        assignment(104L, 12L, Boolean.TRUE);
+
+        List<JobCandidateDTO> jobs = repository.findJobs(List.of(100L, 101L, 102L, 103L, 104L, 999L), null);
+
+        // 102 is undecided and 103 was declined, so both can be placed again; 104 was accepted and is final
+        assertEquals(List.of(100L, 102L, 103L), jobs.stream().map(JobCandidateDTO::getId).toList());
+    }
+
+    @Test
+    void shipperOnlySeesTheirOwnOpenJobs() {
+        job(100L, "OPEN", 1L);
+        job(101L, "OPEN", 2L);
+
+        List<JobCandidateDTO> jobs = repository.findJobs(List.of(100L, 101L), "shipper@example.com");
+
+        assertEquals(List.of(100L), jobs.stream().map(JobCandidateDTO::getId).toList());
+    }
+
+    @Test
+    void trucksHoldingAnotherJobAreLeftOut() {
+        job(100L, "OPEN", 1L);
+        job(101L, "OPEN", 1L);
+        job(102L, "OPEN", 1L);
+        job(103L, "COMPLETED", 1L);
+        job(104L, "OPEN", 1L);
+        for (long id = 10; id <= 15; id++) {
+            truck(id);
+        }
+        assignment(100L, 10L, null);           // undecided, for a job outside the batch
+        assignment(101L, 11L, Boolean.TRUE);   // accepted, job still open
+        assignment(102L, 12L, Boolean.FALSE);  // declined
+        assignment(103L, 13L, Boolean.TRUE);   // accepted, job completed
+        assignment(104L, 14L, null);           // undecided, for a job in the batch
+
+        List<TruckCandidateDTO> trucks = repository.findTrucks(List.of(10L, 11L, 12L, 13L, 14L, 15L), List.of(104L));
+
+        assertEquals(List.of(12L, 13L, 14L, 15L), trucks.stream().map(TruckCandidateDTO::getId).toList());
+    }
+
+    @Test
+    void trucksAreLoadedWithoutJobsToPlace() {
+        job(100L, "OPEN", 1L);
+        truck(10L);
+        truck(11L);
+        assignment(100L, 10L, null);
+
+        List<TruckCandidateDTO> trucks = repository.findTrucks(List.of(10L, 11L), List.of());
+
+        assertEquals(List.of(11L), trucks.stream().map(TruckCandidateDTO::getId).toList());
+    }
+
+    private void job(Long id, String status, Long shipperId) {
+        jdbc.update("INSERT INTO jobs (id, origin, destination, weight, status, shipper_id) "
+                + "VALUES (?, 'Casablanca', 'Rabat', 1000, ?, ?)", id, status, shipperId);
+    }
+
+    private void truck(Long id) {
+        jdbc.update("INSERT INTO trucks (id, location, capacity, fuel_type, available, carrier_id) "
+                + "VALUES (?, 'Casablanca', 10000, 'DIESEL', TRUE, 2)", id);
+    }
+
+    private void assignment(Long jobId, Long truckId, Boolean accepted) {
+        jdbc.update("INSERT INTO job_assignments (job_id, truck_id, distance_km, score, assigned_at, accepted, "
+                        + "decided_at) VALUES (?, ?, 10, 0.5, CURRENT_TIMESTAMP, ?, ?)",
+                jobId, truckId, accepted, accepted != null ? new Timestamp(System.currentTimeMillis()) : null);
+    }
+}
@@ -0,0 +1,97 @@
+package com.marocotransport.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitingFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // 5 requests per second: one token every 200 ms, at most 10 stored
+    private final RateLimitingFilter.Limit limit = new RateLimitingFilter.Limit("auth", 5, 10);
+
+    @Test
+    void newBucketAllowsAFullBurstThenRejects() {
+        long now = 1_000 * SECOND;
+        AtomicLong bucket = new AtomicLong(now);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limit.acquire(bucket, now), "request " + i);
+        }
+
+        assertEquals(SECOND / 5, limit.acquire(bucket, now));
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeAToken() {
+        long now = 1_000 * SECOND;
+        AtomicLong bucket = new AtomicLong(now);
+        drain(bucket, now);
+
+        long arrival = bucket.get();
+        limit.acquire(bucket, now);
+        limit.acquire(bucket, now);
+
+        assertEquals(arrival, bucket.get());
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        long now = 1_000 * SECOND;
+        AtomicLong bucket = new AtomicLong(now);
+        drain(bucket, now);
+
+        long wait = limit.acquire(bucket, now + SECOND / 10);
+        assertEquals(SECOND / 10, wait);
+
+        long later = now + SECOND / 5;
+        assertEquals(0, limit.acquire(bucket, later));
+        assertTrue(limit.acquire(bucket, later) > 0);
+    }
+
+    @Test
+    void idleBucketRefillsToTheBurstButNotBeyond() {
+        long now = 1_000 * SECOND;
+        AtomicLong bucket = new AtomicLong(now);
+        drain(bucket, now);
+
+        // Far longer than the two seconds a full refill takes
+        long later = now + 60 * SECOND;
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limit.acquire(bucket, later), "request " + i);
+        }
+        assertTrue(limit.acquire(bucket, later) > 0);
+    }
+
+    @Test
+    void sustainedRateIsAllowedIndefinitely() {
+        long now = 1_000 * SECOND;
+        AtomicLong bucket = new AtomicLong(now);
+        drain(bucket, now);
+
+        for (int i = 1; i <= 1_000; i++) {
+            assertEquals(0, limit.acquire(bucket, now + i * (SECOND / 5)), "request " + i);
+        }
+    }
+
+    @Test
+    void burstOfZeroStillAllowsOneRequest() {
+        RateLimitingFilter.Limit strict = new RateLimitingFilter.Limit("auth", 1, 0);
+        long now = 1_000 * SECOND;
+        AtomicLong bucket = new AtomicLong(now);
+
+        assertEquals(0, strict.acquire(bucket, now));
+        assertEquals(SECOND, strict.acquire(bucket, now));
+    }
+
+    private void drain(AtomicLong bucket, long now) {
+        while (limit.acquire(bucket, now) == 0) {
+            // Take every stored token
+        }
+    }
+}
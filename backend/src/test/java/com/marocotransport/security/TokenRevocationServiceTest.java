@@ -0,0 +1,104 @@
+package com.marocotransport.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationServiceTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final TokenRevocationService service = new TokenRevocationService(1_000, HOUR, DAY);
+
+    @Test
+    void nothingIsRevokedInitially() {
+        assertFalse(service.isRevoked("token", "carrier@example.com", new Date()));
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndOthersAreNot() {
+        service.revokeToken("logged-out", new Date(System.currentTimeMillis() + HOUR));
+
+        assertTrue(service.isRevoked("logged-out", "carrier@example.com", new Date()));
+        assertFalse(service.isRevoked("still-valid", "carrier@example.com", new Date()));
+    }
+
+    @Test
+    void userCutoffRejectsTokensIssuedUpToIt() throws InterruptedException {
+        Date before = new Date(System.currentTimeMillis() - 1_000);
+        service.revokeUser("Carrier@Example.com");
+        Thread.sleep(5);
+        Date after = new Date();
+
+        assertTrue(service.isRevoked("old", "carrier@example.com", before));
+        assertTrue(service.isRevoked("no-issued-at", "carrier@example.com", null));
+        assertFalse(service.isRevoked("new", "carrier@example.com", after));
+        assertFalse(service.isRevoked("other", "shipper@example.com", before));
+    }
+
+    @Test
+    void tokenIssuedAgainInTheRevokingSecondIsAccepted() {
+        long beforeRevoking = System.currentTimeMillis();
+        service.revokeUser("carrier@example.com");
+        // iat as a JWT carries it: truncated to the second
+        Date reissued = new Date(wholeSecond(System.currentTimeMillis()));
+
+        assertFalse(service.isRevoked("re-login", "carrier@example.com", reissued));
+        assertTrue(service.isRevoked("old", "carrier@example.com", new Date(wholeSecond(beforeRevoking) - 1_000)));
+    }
+
+    @Test
+    void userCutoffCoversSessionsStartedBeforeIt() throws InterruptedException {
+        long sessionStart = System.currentTimeMillis() - 1_000;
+        service.revokeUser("carrier@example.com");
+        Thread.sleep(5);
+
+        assertTrue(service.isUserRevokedSince("CARRIER@example.com", sessionStart));
+        assertFalse(service.isUserRevokedSince("carrier@example.com", System.currentTimeMillis()));
+        assertFalse(service.isUserRevokedSince("shipper@example.com", sessionStart));
+    }
+
+    @Test
+    void purgeDropsExpiredTokensOnly() {
+        long now = System.currentTimeMillis();
+        service.revokeToken("expired", new Date(now - 1_000));
+        service.revokeToken("live", new Date(now + HOUR));
+
+        service.purgeExpired();
+
+        assertFalse(service.isRevoked("expired", "carrier@example.com", new Date()));
+        assertTrue(service.isRevoked("live", "carrier@example.com", new Date()));
+    }
+
+    @Test
+    void purgeDropsCutoffsOlderThanTheLongestTokenLifetime() throws InterruptedException {
+        TokenRevocationService shortLived = new TokenRevocationService(1_000, 1, 1);
+        Date issuedAt = new Date(System.currentTimeMillis() - 1_000);
+        shortLived.revokeUser("carrier@example.com");
+        Thread.sleep(5);
+
+        shortLived.purgeExpired();
+
+        // Any token the cut-off could still match has expired by now, so it is no longer needed
+        assertFalse(shortLived.isRevoked("old", "carrier@example.com", issuedAt));
+    }
+
+    @Test
+    void purgeKeepsCutoffsWithinTheTokenLifetime() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 1_000);
+        service.revokeUser("carrier@example.com");
+
+        service.purgeExpired();
+
+        assertTrue(service.isRevoked("old", "carrier@example.com", issuedAt));
+    }
+
+    private static long wholeSecond(long millis) {
+        return millis - millis % 1_000;
+    }
+}
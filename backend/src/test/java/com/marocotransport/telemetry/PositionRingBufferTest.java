@@ -0,0 +1,120 @@
+package com.marocotransport.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new PositionRingBuffer(5).capacity());
+        assertEquals(8, new PositionRingBuffer(8).capacity());
+        assertEquals(1024, new PositionRingBuffer(1000).capacity());
+    }
+
+    @Test
+    void drainsReportsInOfferOrder() {
+        PositionRingBuffer buffer = new PositionRingBuffer(8);
+        buffer.offer(1, 33.5, -7.6, 100);
+        buffer.offer(2, 34.0, -6.8, 200);
+        buffer.offer(1, 33.6, -7.5, 300);
+
+        List<String> drained = new ArrayList<>();
+        int count = buffer.drain((truckId, latitude, longitude, recordedAt) ->
+                drained.add(truckId + "@" + latitude + "," + longitude + "#" + recordedAt));
+
+        assertEquals(3, count);
+        assertEquals(List.of("1@33.5,-7.6#100", "2@34.0,-6.8#200", "1@33.6,-7.5#300"), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void rejectsReportsWhenFullUntilDrained() {
+        PositionRingBuffer buffer = new PositionRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i, 0, 0, i));
+        }
+
+        assertFalse(buffer.offer(99, 0, 0, 99));
+        assertEquals(4, buffer.size());
+
+        List<Long> drained = new ArrayList<>();
+        buffer.drain((truckId, latitude, longitude, recordedAt) -> drained.add(truckId));
+        assertEquals(List.of(0L, 1L, 2L, 3L), drained);
+        assertTrue(buffer.offer(99, 0, 0, 99));
+    }
+
+    @Test
+    void keepsOrderAcrossWraparound() {
+        PositionRingBuffer buffer = new PositionRingBuffer(4);
+        List<Long> drained = new ArrayList<>();
+        long next = 0;
+        // Ten laps around a four-slot ring, draining a partial batch each time
+        for (int lap = 0; lap < 10; lap++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(buffer.offer(next, next, -next, next));
+                next++;
+            }
+            buffer.drain((truckId, latitude, longitude, recordedAt) -> {
+                assertEquals((double) truckId, latitude);
+                assertEquals((double) -truckId, longitude);
+                assertEquals(truckId, recordedAt);
+                drained.add(truckId);
+            });
+        }
+
+        assertEquals(30, drained.size());
+        for (int i = 0; i < drained.size(); i++) {
+            assertEquals(i, drained.get(i).longValue());
+        }
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws Exception {
+        PositionRingBuffer buffer = new PositionRingBuffer(1 << 16);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int accepted = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(base + i, 0, 0, i)) {
+                            accepted++;
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Integer> result : results) {
+                accepted += result.get();
+            }
+
+            Set<Long> seen = new HashSet<>();
+            buffer.drain((truckId, latitude, longitude, recordedAt) -> assertTrue(seen.add(truckId)));
+            assertEquals(producers * perProducer, accepted);
+            assertEquals(accepted, seen.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
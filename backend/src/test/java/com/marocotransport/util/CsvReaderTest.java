@@ -0,0 +1,110 @@
+package com.marocotransport.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        assertEquals(List.of(
+                        List.of("origin", "destination", "weight"),
+                        List.of("Casablanca", "Rabat", "12.5")),
+                readAll("origin,destination,weight\nCasablanca,Rabat,12.5\n"));
+    }
+
+    @Test
+    void quotedFieldsMayContainCommasQuotesAndLineBreaks() throws IOException {
+        assertEquals(List.of(
+                        List.of("Fes, medina", "say \"hi\"", "line one\nline two"),
+                        List.of("next", "", "")),
+                readAll("\"Fes, medina\",\"say \"\"hi\"\"\",\"line one\nline two\"\nnext,\"\",\n"));
+    }
+
+    @Test
+    void handlesCrlfLineEndings() throws IOException {
+        assertEquals(List.of(
+                        List.of("a", "b"),
+                        List.of("c", "d"),
+                        List.of("e", "f")),
+                readAll("a,b\r\nc,d\r\ne,f\r\n"));
+    }
+
+    @Test
+    void handlesCrlfSplitAcrossReads() throws IOException {
+        // One character per read, so every \r\n straddles a buffer refill
+        String csv = "a,\"b\r\nc\"\r\nd,e\r\n\r\nf,g";
+        try (CsvReader reader = new CsvReader(new OneCharReader(new StringReader(csv)))) {
+            assertEquals(List.of("a", "b\r\nc"), reader.next());
+            assertEquals(List.of("d", "e"), reader.next());
+            assertEquals(List.of("f", "g"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void acceptsBareCarriageReturnsAsLineBreaks() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a,b\rc,d"));
+    }
+
+    @Test
+    void skipsByteOrderMarkAndBlankLines() throws IOException {
+        assertEquals(List.of(List.of("origin", "destination"), List.of("Agadir", "Oujda")),
+                readAll("\ufefforigin,destination\n\n\r\nAgadir,Oujda"));
+    }
+
+    @Test
+    void keepsEmptyAndTrailingFields() throws IOException {
+        assertEquals(List.of(List.of("", "x", "")), readAll(",x,\n"));
+    }
+
+    @Test
+    void textAfterAClosingQuoteIsKept() throws IOException {
+        assertEquals(List.of(List.of("ab", "c")), readAll("\"a\"b,c"));
+    }
+
+    @Test
+    void unterminatedQuotedFieldIsAnError() {
+        IOException error = assertThrows(IOException.class, () -> readAll("a,\"never closed\n"));
+        assertEquals("Unterminated quoted field", error.getMessage());
+    }
+
+    @Test
+    void oversizedFieldIsAnError() {
+        String huge = "x".repeat(64 * 1024 + 1);
+        assertThrows(IOException.class, () -> readAll("a," + huge + "\n"));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static final class OneCharReader extends FilterReader {
+
+        OneCharReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return super.read(buffer, offset, Math.min(1, length));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.marocotransport.util;
+
+import com.maroctransit.auth.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 9, 14, 30, 15, 123_456_789);
+
+    @Test
+    void encodedCursorDecodesToTheSameKey() {
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(CREATED_AT, 42L).encode());
+
+        assertEquals(CREATED_AT, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+        assertEquals(CREATED_AT, decoded.getCreatedAtTimestamp().toLocalDateTime());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(CREATED_AT, Long.MAX_VALUE).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("   "));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : List.of("not base64!", encode("no separator"), encode("yesterday|1"),
+                encode(CREATED_AT + "|abc"))) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> KeysetCursor.decode(cursor), cursor);
+            assertEquals("Invalid cursor", error.getMessage());
+        }
+    }
+
+    @Test
+    void lastPageHasNoNextCursor() {
+        CursorPage<Long> page = KeysetCursor.page(List.of(3L, 2L), 2, KeysetCursorTest::key);
+
+        assertEquals(List.of(3L, 2L), page.getItems());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void extraRowIsDroppedAndTheLastItemBecomesTheCursor() {
+        CursorPage<Long> page = KeysetCursor.page(List.of(5L, 4L, 3L), 2, KeysetCursorTest::key);
+
+        assertEquals(List.of(5L, 4L), page.getItems());
+        assertTrue(page.isHasMore());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(4L, next.getId());
+        assertEquals(CREATED_AT.minusMinutes(4), next.getCreatedAt());
+    }
+
+    private static KeysetCursor key(Long id) {
+        return new KeysetCursor(CREATED_AT.minusMinutes(id), id);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}